@@ -0,0 +1,78 @@
+package com.mentalapp.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory activity catalog for the local engine, loaded once from a JSON resource and
+ * indexed by root emotion key.
+ */
+@Component
+@Slf4j
+public class ActivityCatalog {
+
+    private final List<CatalogActivity> activities;
+    private final Map<String, List<CatalogActivity>> byEmotion;
+
+    public ActivityCatalog(ObjectMapper objectMapper,
+            @Value("${suggestions.local.catalog:classpath:suggestions/activity-catalog.json}") Resource resource) {
+        this.activities = load(objectMapper, resource);
+        Map<String, List<CatalogActivity>> index = new HashMap<>();
+        for (CatalogActivity activity : activities) {
+            activity.getEmotions().forEach(emotion -> index.computeIfAbsent(emotion, key -> new ArrayList<>()).add(activity));
+        }
+        index.replaceAll((emotion, list) -> List.copyOf(list));
+        this.byEmotion = Collections.unmodifiableMap(index);
+        log.info("Loaded {} catalog activities covering {} emotions", activities.size(), byEmotion.size());
+    }
+
+    public List<CatalogActivity> all() {
+        return activities;
+    }
+
+    public List<CatalogActivity> forEmotion(String rootEmotion) {
+        return byEmotion.getOrDefault(rootEmotion, List.of());
+    }
+
+    public boolean covers(String rootEmotion) {
+        return byEmotion.containsKey(rootEmotion);
+    }
+
+    private static List<CatalogActivity> load(ObjectMapper objectMapper, Resource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            List<CatalogActivity> loaded = new ArrayList<>();
+            for (JsonNode node : objectMapper.readTree(in)) {
+                Set<String> emotions = new LinkedHashSet<>();
+                node.path("emotions").forEach(emotion -> emotions.add(emotion.asText()));
+                loaded.add(new CatalogActivity(
+                        new ActivitySuggestion(
+                                node.path("description").asText(),
+                                node.path("type").asText("self_care"),
+                                node.path("duration").asInt(5),
+                                node.path("difficulty").asInt(2),
+                                node.path("priority").asInt(3)),
+                        Set.copyOf(emotions),
+                        node.path("minEnergy").asInt(1),
+                        node.path("maxEnergy").asInt(5)));
+            }
+            return List.copyOf(loaded);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load activity catalog from " + resource, e);
+        }
+    }
+}
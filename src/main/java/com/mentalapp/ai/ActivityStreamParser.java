@@ -0,0 +1,88 @@
+package com.mentalapp.ai;
+
+import java.util.function.Consumer;
+
+/**
+ * Incremental parser for a JSON array of objects that arrives in arbitrary text fragments.
+ * Each top-level object is handed to the consumer as soon as its closing brace arrives,
+ * and only the object currently being read is buffered.
+ *
+ * <p>Text before the opening bracket (such as a markdown fence) is skipped, as is
+ * everything after the array closes. Not thread-safe; feed fragments in order.
+ */
+public class ActivityStreamParser {
+
+    private final Consumer<String> onObject;
+    private final StringBuilder current = new StringBuilder();
+
+    private boolean started;
+    private boolean finished;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+
+    public ActivityStreamParser(Consumer<String> onObject) {
+        this.onObject = onObject;
+    }
+
+    public void feed(CharSequence fragment) {
+        for (int i = 0; i < fragment.length() && !finished; i++) {
+            accept(fragment.charAt(i));
+        }
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private void accept(char c) {
+        if (!started) {
+            if (c == '[') {
+                started = true;
+                depth = 1;
+            }
+            return;
+        }
+
+        if (inString) {
+            append(c);
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+            }
+            return;
+        }
+
+        switch (c) {
+            case '"' -> {
+                inString = true;
+                append(c);
+            }
+            case '{', '[' -> {
+                depth++;
+                append(c);
+            }
+            case '}', ']' -> {
+                append(c);
+                depth--;
+                if (depth == 1 && c == '}') {
+                    onObject.accept(current.toString());
+                    current.setLength(0);
+                } else if (depth == 0) {
+                    finished = true;
+                }
+            }
+            default -> append(c);
+        }
+    }
+
+    // Only characters inside an element of the outer array are kept
+    private void append(char c) {
+        if (depth >= 2) {
+            current.append(c);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.mentalapp.ai;
+
+import lombok.Value;
+
+/**
+ * One suggested activity as produced by the model, independent of any mood entry.
+ * Immutable so it can be cached and turned into rows for any number of entries.
+ */
+@Value
+public class ActivitySuggestion {
+
+    String description;
+    String type;
+    Integer durationMinutes;
+    Integer difficulty;
+    Integer priority;
+}
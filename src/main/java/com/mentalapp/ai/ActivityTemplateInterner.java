@@ -0,0 +1,91 @@
+package com.mentalapp.ai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mentalapp.model.ActivityTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps suggestions to their {@link ActivityTemplate} rows. Templates known to exist are held
+ * in memory, so the fallback activities and other recurring suggestions cost no statement at
+ * all; the rest are inserted in one JDBC batch that leaves existing rows alone.
+ */
+@Component
+@Slf4j
+public class ActivityTemplateInterner {
+
+    private static final String INSERT_TEMPLATE =
+            "INSERT INTO activity_templates (id, description, activity_type, estimated_duration_minutes, "
+                    + "difficulty_level, priority_level) VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, ActivityTemplate> interned;
+
+    public ActivityTemplateInterner(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${activity-templates.max-size:50000}") long maxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.interned = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, interned, "activity-templates");
+    }
+
+    /**
+     * @return one template per suggestion, in order; each exists in the database, or will once
+     *         the surrounding transaction commits
+     */
+    public List<ActivityTemplate> internAll(List<ActivitySuggestion> suggestions) {
+        List<ActivityTemplate> templates = new ArrayList<>(suggestions.size());
+        Map<String, ActivityTemplate> missing = new LinkedHashMap<>();
+        for (ActivitySuggestion suggestion : suggestions) {
+            ActivityTemplate template = ActivityTemplate.of(suggestion.getDescription(), suggestion.getType(),
+                    suggestion.getDurationMinutes(), suggestion.getDifficulty(), suggestion.getPriority());
+            ActivityTemplate known = interned.getIfPresent(template.getId());
+            if (known != null) {
+                templates.add(known);
+            } else {
+                templates.add(missing.computeIfAbsent(template.getId(), id -> template));
+            }
+        }
+        if (!missing.isEmpty()) {
+            insert(missing.values());
+        }
+        return templates;
+    }
+
+    private void insert(Iterable<ActivityTemplate> templates) {
+        List<Object[]> args = new ArrayList<>();
+        for (ActivityTemplate template : templates) {
+            args.add(new Object[] { template.getId(), template.getDescription(), template.getActivityType(),
+                    template.getEstimatedDurationMinutes(), template.getDifficultyLevel(),
+                    template.getPriorityLevel() });
+        }
+        jdbcTemplate.batchUpdate(INSERT_TEMPLATE, args);
+        log.debug("Interned {} activity templates", args.size());
+
+        // Only remembered once committed, so a rolled-back insert is retried next time
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    templates.forEach(template -> interned.put(template.getId(), template));
+                }
+            });
+        } else {
+            templates.forEach(template -> interned.put(template.getId(), template));
+        }
+    }
+}
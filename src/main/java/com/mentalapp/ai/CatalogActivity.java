@@ -0,0 +1,32 @@
+package com.mentalapp.ai;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Catalog entry for the local engine: a suggestion plus the root emotions and energy
+ * range it is meant for.
+ */
+@Value
+public class CatalogActivity {
+
+    ActivitySuggestion suggestion;
+    Set<String> emotions;
+    int minEnergy;
+    int maxEnergy;
+
+    public boolean suits(String rootEmotion) {
+        return emotions.contains(rootEmotion);
+    }
+
+    // 1 inside the range, dropping by a quarter per level outside it
+    public double energyFit(Integer energyLevel) {
+        if (energyLevel == null) {
+            return 0.5;
+        }
+        int distance = energyLevel < minEnergy ? minEnergy - energyLevel
+                : energyLevel > maxEnergy ? energyLevel - maxEnergy : 0;
+        return Math.max(0.0, 1.0 - 0.25 * distance);
+    }
+}
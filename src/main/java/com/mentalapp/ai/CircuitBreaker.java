@@ -0,0 +1,147 @@
+package com.mentalapp.ai;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Count-based circuit breaker. The last {@code windowSize} calls are kept in a ring; once
+ * at least {@code minimumCalls} have been recorded, the breaker opens when either the
+ * failure rate or the slow-call rate reaches its threshold. After {@code openDuration} a
+ * few trial calls are let through (half-open) and their outcome decides whether to close
+ * again or re-open.
+ *
+ * <p>Outcomes are recorded under a lock; this is fine because each one follows a network
+ * call. The permission check on the hot path only reads a volatile field.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final Consumer<State> onTransition;
+
+    // Bit 0 = failed, bit 1 = slow
+    private final byte[] outcomes;
+    private int position;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private volatile State state = State.CLOSED;
+    private volatile long openUntil;
+    private final AtomicInteger halfOpenPermits = new AtomicInteger();
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+            double slowCallRateThreshold, Duration slowCallThreshold, Duration openDuration,
+            int halfOpenCalls, Consumer<State> onTransition) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.onTransition = onTransition;
+        this.outcomes = new byte[this.windowSize];
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return true if a call may go ahead; every permitted call must be followed by
+     *         {@link #onSuccess} or {@link #onFailure}
+     */
+    public boolean tryAcquirePermission() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (System.nanoTime() - openUntil < 0) {
+                return false;
+            }
+            synchronized (this) {
+                if (state == State.OPEN) {
+                    transitionTo(State.HALF_OPEN);
+                }
+            }
+        }
+        // Half-open: only a fixed number of trial calls
+        return halfOpenPermits.getAndDecrement() > 0;
+    }
+
+    public void onSuccess(long durationNanos) {
+        record(false, durationNanos >= slowCallNanos);
+    }
+
+    public void onFailure(long durationNanos) {
+        record(true, durationNanos >= slowCallNanos);
+    }
+
+    private synchronized void record(boolean failed, boolean slow) {
+        if (state == State.OPEN) {
+            // A call that started before the breaker opened
+            return;
+        }
+
+        byte outcome = (byte) ((failed ? 1 : 0) | (slow ? 2 : 0));
+        if (recorded == windowSize) {
+            byte evicted = outcomes[position];
+            failures -= evicted & 1;
+            slowCalls -= (evicted >> 1) & 1;
+        } else {
+            recorded++;
+        }
+        outcomes[position] = outcome;
+        position = (position + 1) % windowSize;
+        failures += outcome & 1;
+        slowCalls += (outcome >> 1) & 1;
+
+        int required = state == State.HALF_OPEN ? halfOpenCalls : minimumCalls;
+        if (recorded < required) {
+            return;
+        }
+        boolean tripped = failures * 100.0 / recorded >= failureRateThreshold
+                || slowCalls * 100.0 / recorded >= slowCallRateThreshold;
+        if (tripped) {
+            transitionTo(State.OPEN);
+        } else if (state == State.HALF_OPEN) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    // Callers hold the monitor
+    private void transitionTo(State next) {
+        if (state == next) {
+            return;
+        }
+        state = next;
+        resetWindow();
+        if (next == State.OPEN) {
+            openUntil = System.nanoTime() + openNanos;
+        } else if (next == State.HALF_OPEN) {
+            halfOpenPermits.set(halfOpenCalls);
+        }
+        onTransition.accept(next);
+    }
+
+    private void resetWindow() {
+        position = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+}
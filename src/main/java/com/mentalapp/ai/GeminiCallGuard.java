@@ -0,0 +1,119 @@
+package com.mentalapp.ai;
+
+import com.mentalapp.exception.GeminiClientException;
+import com.mentalapp.exception.GeminiUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and bulkhead in front of every Gemini call. When the breaker is open
+ * or all bulkhead permits are taken the call is rejected immediately with
+ * {@link GeminiUnavailableException}, so callers can fall back without waiting.
+ */
+@Component
+@Slf4j
+public class GeminiCallGuard {
+
+    public static final String REASON_CIRCUIT_OPEN = "circuit_open";
+    public static final String REASON_BULKHEAD_FULL = "bulkhead_full";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadRejections;
+
+    public GeminiCallGuard(MeterRegistry meterRegistry,
+            @Value("${gemini.resilience.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${gemini.resilience.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${gemini.resilience.circuit-breaker.failure-rate-threshold:50}") double failureRateThreshold,
+            @Value("${gemini.resilience.circuit-breaker.slow-call-threshold:8s}") Duration slowCallThreshold,
+            @Value("${gemini.resilience.circuit-breaker.slow-call-rate-threshold:80}") double slowCallRateThreshold,
+            @Value("${gemini.resilience.circuit-breaker.open-duration:30s}") Duration openDuration,
+            @Value("${gemini.resilience.circuit-breaker.half-open-calls:3}") int halfOpenCalls,
+            @Value("${gemini.resilience.bulkhead.max-concurrent-calls:16}") int maxConcurrentCalls) {
+        this.circuitBreaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold,
+                slowCallRateThreshold, slowCallThreshold, openDuration, halfOpenCalls,
+                state -> onTransition(meterRegistry, state));
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+
+        Gauge.builder("gemini.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Gemini circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        Gauge.builder("gemini.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Gemini calls that can start before the bulkhead rejects")
+                .register(meterRegistry);
+        this.circuitOpenRejections = rejectionCounter(meterRegistry, REASON_CIRCUIT_OPEN);
+        this.bulkheadRejections = rejectionCounter(meterRegistry, REASON_BULKHEAD_FULL);
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        // Bulkhead first, so a rejected call never takes one of the breaker's trial permits
+        if (!bulkhead.tryAcquire()) {
+            bulkheadRejections.increment();
+            throw new GeminiUnavailableException(REASON_BULKHEAD_FULL);
+        }
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                circuitOpenRejections.increment();
+                throw new GeminiUnavailableException(REASON_CIRCUIT_OPEN);
+            }
+            return invoke(call);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private <T> T invoke(Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            circuitBreaker.onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            long duration = System.nanoTime() - start;
+            if (isUpstreamFailure(e)) {
+                circuitBreaker.onFailure(duration);
+            } else {
+                circuitBreaker.onSuccess(duration);
+            }
+            throw e;
+        }
+    }
+
+    // Client errors (bad request, bad key) say nothing about Gemini's health; 429 does.
+    // Neither does a call cancelled by its caller, such as the loser of a hedged pair.
+    private static boolean isUpstreamFailure(RuntimeException e) {
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        if (e instanceof GeminiClientException clientException) {
+            int status = clientException.getStatusCode();
+            return status == 0 || status == 429 || status >= 500;
+        }
+        return true;
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("gemini.calls.rejected")
+                .description("Gemini calls rejected without being sent")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static void onTransition(MeterRegistry meterRegistry, CircuitBreaker.State state) {
+        log.warn("Gemini circuit breaker is now {}", state);
+        meterRegistry.counter("gemini.circuit.transitions", "state", state.name().toLowerCase()).increment();
+    }
+}
@@ -0,0 +1,210 @@
+package com.mentalapp.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mentalapp.exception.GeminiClientException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Calls the Gemini generateContent endpoint over the shared {@link HttpClient}.
+ *
+ * <p>Every call is bounded three ways: the client's connect timeout, a per-request response
+ * timeout, and a total deadline after which the exchange is cancelled. Calls are timed by
+ * outcome and negotiated protocol, and the number in flight is exported as a gauge.
+ */
+@Component
+@Slf4j
+public class GeminiClient {
+
+    private static final int MAX_ERROR_BODY = 500;
+
+    private final HttpClient httpClient;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Value("${gemini.api.key:}")
+    private String apiKey;
+
+    @Value("${gemini.api.url:https://generativelanguage.googleapis.com/v1beta/models/gemini-pro:generateContent}")
+    private String apiUrl;
+
+    @Value("${gemini.api.stream-url:https://generativelanguage.googleapis.com/v1beta/models/gemini-pro:streamGenerateContent?alt=sse}")
+    private String streamUrl;
+
+    @Value("${gemini.http.read-timeout:10s}")
+    private Duration readTimeout;
+
+    @Value("${gemini.http.deadline:15s}")
+    private Duration deadline;
+
+    public GeminiClient(HttpClient geminiHttpClient, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.httpClient = geminiHttpClient;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        Gauge.builder("gemini.http.in-flight", inFlight, AtomicInteger::get)
+                .description("Gemini calls currently waiting on a response")
+                .register(meterRegistry);
+    }
+
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isEmpty();
+    }
+
+    /**
+     * Posts a generateContent request body and returns the raw JSON response.
+     *
+     * @throws GeminiClientException on a non-2xx status, timeout, or I/O failure
+     */
+    public String generateContent(String requestBody) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(apiUrl))
+                .timeout(readTimeout)
+                .header("Content-Type", "application/json")
+                .header("x-goog-api-key", apiKey)
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                .build();
+        return send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Posts to the streaming endpoint and hands each text fragment of the answer to
+     * {@code onText} as its server-sent event arrives. Returns once the stream ends.
+     * Fragments are delivered in order on the client's threads.
+     *
+     * @throws GeminiClientException on a non-2xx status, timeout, I/O failure, or if
+     *         {@code onText} failed
+     */
+    public void streamGenerateContent(String requestBody, Consumer<String> onText) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(streamUrl))
+                .timeout(readTimeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "text/event-stream")
+                .header("x-goog-api-key", apiKey)
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                .build();
+        ServerSentTextSubscriber subscriber = new ServerSentTextSubscriber(onText);
+        send(request, HttpResponse.BodyHandlers.fromLineSubscriber(subscriber));
+        if (subscriber.failure != null) {
+            throw new GeminiClientException("Failed to handle streamed Gemini response", subscriber.failure);
+        }
+    }
+
+    private <T> T send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+        long start = System.nanoTime();
+        String outcome = "io_error";
+        String status = "none";
+        String protocol = "unknown";
+        inFlight.incrementAndGet();
+        CompletableFuture<HttpResponse<T>> future = httpClient.sendAsync(request, bodyHandler);
+        try {
+            HttpResponse<T> response = future.get(deadline.toNanos(), TimeUnit.NANOSECONDS);
+            status = String.valueOf(response.statusCode());
+            protocol = response.version().name();
+            if (response.statusCode() / 100 != 2) {
+                outcome = "http_error";
+                throw new GeminiClientException("Gemini API call failed with status " + response.statusCode()
+                        + ": " + abbreviate(response.body()), response.statusCode());
+            }
+            outcome = "success";
+            return response.body();
+        } catch (TimeoutException e) {
+            // Past the total deadline: abandon the exchange so the stream or connection is released
+            future.cancel(true);
+            outcome = "timeout";
+            throw new GeminiClientException("Gemini API call exceeded deadline of " + deadline, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof HttpTimeoutException) {
+                outcome = "timeout";
+            }
+            throw new GeminiClientException("Gemini API call failed", cause);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            outcome = "cancelled";
+            Thread.currentThread().interrupt();
+            throw new GeminiClientException("Interrupted while calling Gemini API", e);
+        } finally {
+            inFlight.decrementAndGet();
+            Timer.builder("gemini.http.requests")
+                    .description("Gemini HTTP calls")
+                    .tag("outcome", outcome)
+                    .tag("status", status)
+                    .tag("protocol", protocol)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Reads {@code data:} lines of the event stream; each carries a partial
+     * generateContent response whose candidate text is the next fragment.
+     */
+    private final class ServerSentTextSubscriber implements Flow.Subscriber<String> {
+
+        private final Consumer<String> onText;
+        private volatile RuntimeException failure;
+
+        ServerSentTextSubscriber(Consumer<String> onText) {
+            this.onText = onText;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (failure != null || !line.startsWith("data:")) {
+                return;
+            }
+            try {
+                JsonNode chunk = objectMapper.readTree(line.substring(5).trim());
+                StringBuilder text = new StringBuilder();
+                for (JsonNode part : chunk.path("candidates").path(0).path("content").path("parts")) {
+                    text.append(part.path("text").asText(""));
+                }
+                if (text.length() > 0) {
+                    onText.accept(text.toString());
+                }
+            } catch (Exception e) {
+                // Keep draining so the exchange completes; the caller sees the failure afterwards
+                failure = e instanceof RuntimeException runtime ? runtime : new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // Reported through the response future
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    private static String abbreviate(Object body) {
+        String text = String.valueOf(body);
+        return text.length() <= MAX_ERROR_BODY ? text : text.substring(0, MAX_ERROR_BODY) + "...";
+    }
+}
@@ -0,0 +1,219 @@
+package com.mentalapp.ai;
+
+import com.mentalapp.exception.GeminiClientException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hedges Gemini calls against tail latency. When a call has not answered within the tracked
+ * latency percentile, an identical second call is sent; the first success wins and the other
+ * is cancelled, which interrupts its thread and so abandons its HTTP exchange. An original
+ * call beaten by its hedge is timed up to its cancellation, so the slow calls that trigger
+ * hedges still count towards the percentile.
+ *
+ * <p>Extra load is capped by a token budget: every call earns {@code max-extra-load} of a
+ * token, up to {@code burst}, and each hedge spends a whole one. Until {@code minimum-samples}
+ * calls have been timed, nothing is hedged.
+ */
+@Component
+@Slf4j
+public class GeminiRequestHedger {
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final double tokensPerCall;
+    private final double burst;
+    private final LatencyTracker latencies;
+    private final ExecutorService executor;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final Counter hedgesDenied;
+
+    private double tokens;
+
+    public GeminiRequestHedger(MeterRegistry meterRegistry,
+            @Value("${gemini.hedging.enabled:false}") boolean enabled,
+            @Value("${gemini.hedging.percentile:95}") double percentile,
+            @Value("${gemini.hedging.min-delay:200ms}") Duration minDelay,
+            @Value("${gemini.hedging.max-extra-load:0.05}") double maxExtraLoad,
+            @Value("${gemini.hedging.burst:10}") double burst,
+            @Value("${gemini.hedging.window-size:200}") int windowSize,
+            @Value("${gemini.hedging.minimum-samples:20}") int minimumSamples) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.tokensPerCall = Math.max(0, maxExtraLoad);
+        this.burst = Math.max(1, burst);
+        this.latencies = new LatencyTracker(windowSize, minimumSamples);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "gemini-hedge-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("gemini.hedge.delay", this, GeminiRequestHedger::hedgeDelayMillis)
+                .description("How long a Gemini call may take before it is hedged; -1 while warming up")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.hedgesSent = Counter.builder("gemini.hedges.sent")
+                .description("Second Gemini calls sent because the first was slow")
+                .register(meterRegistry);
+        this.hedgesWon = Counter.builder("gemini.hedges.won")
+                .description("Hedged calls that answered before the original call")
+                .register(meterRegistry);
+        this.hedgesDenied = Counter.builder("gemini.hedges.denied")
+                .description("Slow Gemini calls not hedged because the hedge budget was spent")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs the call, hedging it if it is slow. Failures of one attempt are only thrown once
+     * the other has failed as well.
+     */
+    public <T> T execute(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        earnToken();
+        long delay = hedgeDelayNanos();
+
+        CompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        List<Future<T>> attempts = new ArrayList<>(2);
+        TimedCall<T> original = new TimedCall<>(call);
+        attempts.add(completion.submit(original));
+        Future<T> hedge = null;
+        try {
+            Future<T> done = delay < 0 ? null : completion.poll(delay, TimeUnit.NANOSECONDS);
+            if (done == null && delay >= 0) {
+                if (trySpendToken()) {
+                    hedge = completion.submit(new TimedCall<>(call));
+                    attempts.add(hedge);
+                    hedgesSent.increment();
+                    log.debug("Gemini call still pending after {} ms, sent a hedge", delay / 1_000_000);
+                } else {
+                    hedgesDenied.increment();
+                }
+            }
+
+            RuntimeException failure = null;
+            for (int pending = attempts.size(); pending > 0; pending--) {
+                if (done == null) {
+                    done = completion.take();
+                }
+                try {
+                    T result = done.get();
+                    if (done == hedge) {
+                        hedgesWon.increment();
+                    }
+                    return result;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = unwrap(e);
+                    }
+                }
+                done = null;
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeminiClientException("Interrupted while waiting for Gemini API", e);
+        } finally {
+            // The loser, if still running, is interrupted and abandons its exchange
+            if (attempts.get(0).cancel(true)) {
+                // A beaten original is the slow tail; its time so far is a lower bound on its
+                // latency and keeps the percentile from drifting toward the fast calls
+                original.record();
+            }
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    private long hedgeDelayNanos() {
+        long tracked = latencies.percentile(percentile);
+        return tracked < 0 ? -1 : Math.max(minDelayNanos, tracked);
+    }
+
+    private double hedgeDelayMillis() {
+        long delay = hedgeDelayNanos();
+        return delay < 0 ? -1 : delay / 1_000_000.0;
+    }
+
+    private synchronized void earnToken() {
+        tokens = Math.min(burst, tokens + tokensPerCall);
+    }
+
+    private synchronized boolean trySpendToken() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * One attempt, timed from submission. Its latency is recorded once: when it succeeds, or
+     * when it is cancelled as the losing original.
+     */
+    private final class TimedCall<T> implements Callable<T> {
+
+        private final Supplier<T> call;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        TimedCall(Supplier<T> call) {
+            this.call = call;
+        }
+
+        @Override
+        public T call() {
+            T result = call.get();
+            record();
+            return result;
+        }
+
+        void record() {
+            if (recorded.compareAndSet(false, true)) {
+                latencies.record(System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new GeminiClientException("Gemini API call failed", cause);
+    }
+}
@@ -0,0 +1,273 @@
+package com.mentalapp.ai;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mentalapp.exception.GeminiResponseFormatException;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-pass decoder for Gemini {@code generateContent} responses, built on the Jackson
+ * streaming API. The envelope is scanned token by token for the first candidate's text,
+ * and the activities inside that text are bound straight into {@link ActivitySuggestion}s,
+ * without a tree, substring copies or intermediate maps.
+ *
+ * <p>Field values are coerced tolerantly: numbers may be floats or strings such as
+ * {@code "10 minutes"}, out-of-range values are clamped, and anything unusable takes the
+ * field's default. If the answer is cut off, the activities completed before the cut are kept.
+ */
+@Component
+@Slf4j
+public class GeminiResponseDecoder {
+
+    static final String DEFAULT_DESCRIPTION = "Activity description";
+    static final String DEFAULT_TYPE = "self_care";
+    static final int DEFAULT_DURATION = 5;
+    static final int DEFAULT_DIFFICULTY = 2;
+    static final int DEFAULT_PRIORITY = 3;
+    static final int MAX_DURATION = 240;
+
+    /** Token counts from a response's {@code usageMetadata}; absent counts are zero. */
+    @Value
+    public static class Usage {
+        int promptTokens;
+        int candidatesTokens;
+        int totalTokens;
+    }
+
+    private final JsonFactory jsonFactory;
+
+    public GeminiResponseDecoder(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * @return the activities in the first candidate's text, which must hold a JSON array
+     */
+    public List<ActivitySuggestion> decodeActivities(String response) {
+        String text = candidateText(response);
+        int start = text.indexOf('[');
+        if (start == -1) {
+            throw new GeminiResponseFormatException("No JSON array found in Gemini response");
+        }
+        try (JsonParser parser = jsonFactory.createParser(text.toCharArray(), start, text.length() - start)) {
+            parser.nextToken();
+            return readActivities(parser);
+        } catch (IOException e) {
+            throw new GeminiResponseFormatException("Failed to parse activities from Gemini response", e);
+        }
+    }
+
+    /**
+     * @return activities per key of the JSON object in the first candidate's text, as used for
+     *         batched prompts; keys whose value is not a usable array are left out
+     */
+    public Map<String, List<ActivitySuggestion>> decodeActivitiesByKey(String response) {
+        String text = candidateText(response);
+        int start = text.indexOf('{');
+        if (start == -1) {
+            throw new GeminiResponseFormatException("No JSON object found in batched Gemini response");
+        }
+        Map<String, List<ActivitySuggestion>> byKey = new LinkedHashMap<>();
+        try (JsonParser parser = jsonFactory.createParser(text.toCharArray(), start, text.length() - start)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String key = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_ARRAY) {
+                    List<ActivitySuggestion> activities = readActivities(parser);
+                    if (!activities.isEmpty()) {
+                        byKey.put(key, activities);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            // Keys completed before a cut-off are still usable; the rest fall back individually
+            log.warn("Batched Gemini response ended early after {} entries", byKey.size());
+        }
+        return byKey;
+    }
+
+    /**
+     * @return one activity from a standalone JSON object, as emitted while streaming
+     */
+    public ActivitySuggestion decodeActivity(String json) {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new GeminiResponseFormatException("Expected a JSON object for an activity");
+            }
+            return readActivity(parser);
+        } catch (IOException e) {
+            throw new GeminiResponseFormatException("Failed to parse activity", e);
+        }
+    }
+
+    /**
+     * @return {@code candidates[0].content.parts[0].text} of a response envelope
+     */
+    public String candidateText(String response) {
+        try (JsonParser parser = jsonFactory.createParser(response)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT
+                    && seekField(parser, "candidates") && enterFirstElement(parser)
+                    && seekField(parser, "content") && parser.currentToken() == JsonToken.START_OBJECT
+                    && seekField(parser, "parts") && enterFirstElement(parser)
+                    && seekField(parser, "text") && parser.currentToken() == JsonToken.VALUE_STRING) {
+                return parser.getText();
+            }
+        } catch (IOException e) {
+            throw new GeminiResponseFormatException("Failed to parse Gemini response", e);
+        }
+        throw new GeminiResponseFormatException("Could not extract content from Gemini response");
+    }
+
+    /**
+     * @return the response's token counts, or null if it carries no {@code usageMetadata}
+     */
+    public Usage usage(String response) {
+        try (JsonParser parser = jsonFactory.createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT || !seekField(parser, "usageMetadata")
+                    || parser.currentToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            int prompt = 0;
+            int candidates = 0;
+            int total = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "promptTokenCount" -> prompt = intOr(parser, value, 0);
+                    case "candidatesTokenCount" -> candidates = intOr(parser, value, 0);
+                    case "totalTokenCount" -> total = intOr(parser, value, 0);
+                    default -> parser.skipChildren();
+                }
+            }
+            return new Usage(prompt, candidates, total);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Positions the parser on the value of the named field of the current object
+    private static boolean seekField(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (name.equals(field)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    // From an array value, steps into its first element if that is an object
+    private static boolean enterFirstElement(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.START_ARRAY && parser.nextToken() == JsonToken.START_OBJECT;
+    }
+
+    // Parser on START_ARRAY; reads up to the matching END_ARRAY, keeping what completed on a cut-off
+    private List<ActivitySuggestion> readActivities(JsonParser parser) throws IOException {
+        List<ActivitySuggestion> activities = new ArrayList<>();
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            return activities;
+        }
+        try {
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                if (token == JsonToken.START_OBJECT) {
+                    activities.add(readActivity(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            if (activities.isEmpty()) {
+                throw e;
+            }
+            log.warn("Gemini response ended early, keeping {} complete activities", activities.size());
+        }
+        return activities;
+    }
+
+    // Parser on START_OBJECT; reads up to the matching END_OBJECT
+    private static ActivitySuggestion readActivity(JsonParser parser) throws IOException {
+        String description = DEFAULT_DESCRIPTION;
+        String type = DEFAULT_TYPE;
+        int duration = DEFAULT_DURATION;
+        int difficulty = DEFAULT_DIFFICULTY;
+        int priority = DEFAULT_PRIORITY;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "description" -> description = textOr(parser, value, DEFAULT_DESCRIPTION);
+                case "type" -> type = textOr(parser, value, DEFAULT_TYPE);
+                case "duration" -> duration = clamp(intOr(parser, value, DEFAULT_DURATION), 1, MAX_DURATION);
+                case "difficulty" -> difficulty = clamp(intOr(parser, value, DEFAULT_DIFFICULTY), 1, 5);
+                case "priority" -> priority = clamp(intOr(parser, value, DEFAULT_PRIORITY), 1, 5);
+                default -> parser.skipChildren();
+            }
+        }
+        return new ActivitySuggestion(description, type, duration, difficulty, priority);
+    }
+
+    private static String textOr(JsonParser parser, JsonToken value, String defaultValue) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return defaultValue;
+        }
+        if (value.isStructStart()) {
+            parser.skipChildren();
+            return defaultValue;
+        }
+        return parser.getText();
+    }
+
+    // Accepts 10, 10.6 and "10 minutes"; anything else is the default
+    private static int intOr(JsonParser parser, JsonToken value, int defaultValue) throws IOException {
+        switch (value) {
+            case VALUE_NUMBER_INT:
+                return parser.getValueAsInt(defaultValue);
+            case VALUE_NUMBER_FLOAT:
+                return (int) Math.round(parser.getDoubleValue());
+            case VALUE_STRING:
+                return leadingInt(parser.getText(), defaultValue);
+            case START_OBJECT:
+            case START_ARRAY:
+                parser.skipChildren();
+                return defaultValue;
+            default:
+                return defaultValue;
+        }
+    }
+
+    private static int leadingInt(String text, int defaultValue) {
+        int i = 0;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        long value = 0;
+        int digits = 0;
+        while (i < text.length() && text.charAt(i) >= '0' && text.charAt(i) <= '9' && digits < 9) {
+            value = value * 10 + (text.charAt(i) - '0');
+            i++;
+            digits++;
+        }
+        return digits == 0 ? defaultValue : (int) value;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,46 @@
+package com.mentalapp.ai;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window over the last {@code windowSize} call latencies. Percentiles are computed
+ * on demand from a sorted copy of the window, which is cheap next to the network calls being
+ * measured.
+ */
+public class LatencyTracker {
+
+    private final long[] samples;
+    private final int minimumSamples;
+    private int position;
+    private int recorded;
+
+    public LatencyTracker(int windowSize, int minimumSamples) {
+        this.samples = new long[Math.max(1, windowSize)];
+        this.minimumSamples = Math.max(1, Math.min(minimumSamples, samples.length));
+    }
+
+    public synchronized void record(long durationNanos) {
+        samples[position] = durationNanos;
+        position = (position + 1) % samples.length;
+        if (recorded < samples.length) {
+            recorded++;
+        }
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the latency at that percentile in nanoseconds, or -1 until enough calls are recorded
+     */
+    public long percentile(double percentile) {
+        long[] window;
+        synchronized (this) {
+            if (recorded < minimumSamples) {
+                return -1;
+            }
+            window = Arrays.copyOf(samples, recorded);
+        }
+        Arrays.sort(window);
+        int rank = (int) Math.ceil(percentile / 100.0 * window.length) - 1;
+        return window[Math.max(0, Math.min(window.length - 1, rank))];
+    }
+}
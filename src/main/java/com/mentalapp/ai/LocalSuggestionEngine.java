@@ -0,0 +1,149 @@
+package com.mentalapp.ai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mentalapp.model.Emotion;
+import com.mentalapp.model.MoodEntry;
+import com.mentalapp.repository.SuggestedActivityRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recommends from the {@link ActivityCatalog} without any network call. Candidates are
+ * scored on how many of the entry's root emotions they address, how well they fit its
+ * energy level, and how often the user has completed activities of the same type.
+ * Declines entries with an emotion the catalog does not cover.
+ */
+@Component
+@Slf4j
+public class LocalSuggestionEngine implements SuggestionEngine {
+
+    private static final String NO_EMOTION = "neutral";
+    private static final double EMOTION_WEIGHT = 0.5;
+    private static final double ENERGY_WEIGHT = 0.3;
+    private static final double COMPLETION_WEIGHT = 0.2;
+
+    private final ActivityCatalog catalog;
+    private final SuggestedActivityRepository suggestedActivityRepository;
+    private final Cache<Long, Map<String, Double>> completionRates;
+    private final double minScore;
+
+    public LocalSuggestionEngine(ActivityCatalog catalog,
+            SuggestedActivityRepository suggestedActivityRepository,
+            MeterRegistry meterRegistry,
+            @Value("${suggestions.local.min-score:0.6}") double minScore,
+            @Value("${suggestions.local.history-ttl:10m}") Duration historyTtl) {
+        this.catalog = catalog;
+        this.suggestedActivityRepository = suggestedActivityRepository;
+        this.minScore = minScore;
+        this.completionRates = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(historyTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completionRates, "suggestions.completion-rates");
+    }
+
+    @Override
+    public List<ActivitySuggestion> suggest(MoodEntry moodEntry, int count) {
+        Set<String> rootEmotions = rootEmotions(moodEntry);
+        if (!rootEmotions.stream().allMatch(catalog::covers)) {
+            log.debug("Catalog does not cover emotions {} of mood entry: {}", rootEmotions, moodEntry.getId());
+            return List.of();
+        }
+
+        Map<String, Double> rates = completionRates(moodEntry);
+        Set<CatalogActivity> candidates = new LinkedHashSet<>();
+        rootEmotions.forEach(emotion -> candidates.addAll(catalog.forEmotion(emotion)));
+
+        List<Scored> ranked = new ArrayList<>(candidates.size());
+        for (CatalogActivity candidate : candidates) {
+            double score = score(candidate, rootEmotions, moodEntry.getEnergyLevel(), rates);
+            if (score >= minScore) {
+                ranked.add(new Scored(candidate.getSuggestion(), score));
+            }
+        }
+        ranked.sort(Comparator.comparingDouble(Scored::score).reversed());
+        return pickVaried(ranked, count);
+    }
+
+    private static double score(CatalogActivity candidate, Set<String> rootEmotions, Integer energyLevel,
+            Map<String, Double> rates) {
+        long matched = rootEmotions.stream().filter(candidate::suits).count();
+        double emotionScore = (double) matched / rootEmotions.size();
+        // Types the user has no history for start at an even chance
+        double completionRate = rates.getOrDefault(candidate.getSuggestion().getType(), 0.5);
+        return EMOTION_WEIGHT * emotionScore
+                + ENERGY_WEIGHT * candidate.energyFit(energyLevel)
+                + COMPLETION_WEIGHT * completionRate;
+    }
+
+    // Best first, one per activity type while other types are left
+    private static List<ActivitySuggestion> pickVaried(List<Scored> ranked, int count) {
+        List<ActivitySuggestion> picked = new ArrayList<>(count);
+        Set<String> types = new HashSet<>();
+        for (Scored scored : ranked) {
+            if (picked.size() < count && types.add(scored.suggestion().getType())) {
+                picked.add(scored.suggestion());
+            }
+        }
+        for (Scored scored : ranked) {
+            if (picked.size() < count && !picked.contains(scored.suggestion())) {
+                picked.add(scored.suggestion());
+            }
+        }
+        return picked;
+    }
+
+    // Keys of the taxonomy roots above the entry's emotions; "neutral" if it has none
+    static Set<String> rootEmotions(MoodEntry moodEntry) {
+        Set<String> roots = new LinkedHashSet<>();
+        if (moodEntry.getEmotions() != null) {
+            for (Emotion emotion : moodEntry.getEmotions()) {
+                Emotion root = emotion;
+                while (root.getParent() != null) {
+                    root = root.getParent();
+                }
+                roots.add(root.getKey());
+            }
+        }
+        if (roots.isEmpty()) {
+            roots.add(NO_EMOTION);
+        }
+        return roots;
+    }
+
+    // Laplace-smoothed share of suggested activities the user completed, per type
+    private Map<String, Double> completionRates(MoodEntry moodEntry) {
+        if (moodEntry.getUser() == null || moodEntry.getUser().getId() == null) {
+            return Map.of();
+        }
+        return completionRates.get(moodEntry.getUser().getId(), userId -> {
+            Map<String, Double> rates = new HashMap<>();
+            for (Object[] row : suggestedActivityRepository.countCompletionsByType(userId)) {
+                if (row[0] != null) {
+                    long suggested = ((Number) row[1]).longValue();
+                    long completed = row[2] == null ? 0 : ((Number) row[2]).longValue();
+                    rates.put((String) row[0], (completed + 1.0) / (suggested + 2.0));
+                }
+            }
+            return Map.copyOf(rates);
+        });
+    }
+
+    private record Scored(ActivitySuggestion suggestion, double score) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.mentalapp.ai;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Groups concurrent blocking calls into batches of up to {@code maxBatchSize} items,
+ * collected for at most {@code window}.
+ *
+ * <p>No threads of its own: the first caller to join an empty batch becomes its leader,
+ * waits for the window to pass (or the batch to fill), runs the handler for everyone and
+ * hands each caller its own result. The handler returns results in input order; a
+ * {@code null} result fails only that item, an exception fails the whole batch.
+ */
+public class MicroBatcher<T, R> {
+
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final Function<List<T>, List<R>> handler;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchClosed = lock.newCondition();
+    private Batch<T, R> open;
+
+    public MicroBatcher(int maxBatchSize, Duration window, Function<List<T>, List<R>> handler) {
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.windowNanos = window.toNanos();
+        this.handler = handler;
+    }
+
+    public R submit(T item) {
+        Batch<T, R> batch;
+        CompletableFuture<R> result;
+        boolean leader;
+        lock.lock();
+        try {
+            leader = open == null;
+            if (leader) {
+                open = new Batch<>();
+            }
+            batch = open;
+            result = batch.add(item);
+            if (batch.items.size() >= maxBatchSize) {
+                open = null;
+                batchClosed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (leader) {
+            awaitClose(batch);
+            run(batch);
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private void awaitClose(Batch<T, R> batch) {
+        lock.lock();
+        try {
+            long remaining = windowNanos;
+            while (open == batch && remaining > 0) {
+                remaining = batchClosed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (open == batch) {
+                open = null;
+            }
+            lock.unlock();
+        }
+    }
+
+    // Runs on the leader once the batch is closed, so its lists no longer change
+    private void run(Batch<T, R> batch) {
+        try {
+            List<R> results = handler.apply(List.copyOf(batch.items));
+            for (int i = 0; i < batch.results.size(); i++) {
+                R value = i < results.size() ? results.get(i) : null;
+                if (value != null) {
+                    batch.results.get(i).complete(value);
+                } else {
+                    batch.results.get(i).completeExceptionally(
+                            new IllegalStateException("No result for item " + i + " of batch"));
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            // Never leave followers waiting
+            batch.results.forEach(future -> future.completeExceptionally(e));
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    private static final class Batch<T, R> {
+
+        private final List<T> items = new ArrayList<>();
+        private final List<CompletableFuture<R>> results = new ArrayList<>();
+
+        CompletableFuture<R> add(T item) {
+            CompletableFuture<R> result = new CompletableFuture<>();
+            items.add(item);
+            results.add(result);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.mentalapp.ai;
+
+import com.mentalapp.model.MoodEntry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Vetted Gemini suggestions for each (root emotion, energy level, comfort environment) cell,
+ * filled and refreshed in the background by {@code PrecomputedCatalogRefresher}. Lookups are
+ * a single hash probe. Entries with a description or passion are left to Gemini, which can
+ * personalise them; so are entries spanning several root emotions.
+ */
+@Component
+@Slf4j
+public class PrecomputedCatalog {
+
+    /** Environment bucket for entries whose comfort environment matches none of the configured ones. */
+    public static final String ANY_ENVIRONMENT = "any";
+
+    private static final Set<String> ACTIVITY_TYPES = Set.of(
+            "mindfulness", "physical", "creative", "social", "self_care", "breathing", "gratitude");
+
+    private final Map<Cell, List<ActivitySuggestion>> cells = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final List<String> environments;
+
+    public PrecomputedCatalog(MeterRegistry meterRegistry,
+            @Value("${suggestions.precomputed.enabled:false}") boolean enabled,
+            @Value("${suggestions.precomputed.environments:home,outdoors,work,social}") List<String> environments) {
+        this.enabled = enabled;
+        this.environments = environments.stream()
+                .map(SuggestionFingerprint::normalize)
+                .filter(environment -> !environment.isEmpty())
+                .collect(Collectors.toUnmodifiableList());
+        Gauge.builder("suggestions.precomputed.cells", cells, Map::size)
+                .description("Precomputed suggestion cells ready to serve")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return all environment buckets, {@link #ANY_ENVIRONMENT} first
+     */
+    public List<String> environmentBuckets() {
+        return Stream.concat(Stream.of(ANY_ENVIRONMENT), environments.stream())
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * @return the cell's suggestions, or null if the entry needs personalising or its cell
+     *         is not filled yet
+     */
+    public List<ActivitySuggestion> lookup(MoodEntry moodEntry) {
+        if (!enabled || isPersonal(moodEntry) || moodEntry.getEnergyLevel() == null) {
+            return null;
+        }
+        Set<String> roots = LocalSuggestionEngine.rootEmotions(moodEntry);
+        if (roots.size() != 1) {
+            return null;
+        }
+        return cells.get(new Cell(roots.iterator().next(), moodEntry.getEnergyLevel(),
+                environmentOf(moodEntry.getComfortEnvironment())));
+    }
+
+    /**
+     * Replaces a cell with the suggestions that pass vetting.
+     *
+     * @return false, leaving the cell as it was, if fewer than {@code required} pass
+     */
+    public boolean put(String rootEmotion, int energyLevel, String environment,
+            List<ActivitySuggestion> suggestions, int required) {
+        List<ActivitySuggestion> vetted = suggestions.stream()
+                .filter(PrecomputedCatalog::isVetted)
+                .limit(required)
+                .collect(Collectors.toUnmodifiableList());
+        if (vetted.size() < required) {
+            log.debug("Only {} of {} suggestions passed vetting for {}/{}/{}",
+                    vetted.size(), suggestions.size(), rootEmotion, energyLevel, environment);
+            return false;
+        }
+        cells.put(new Cell(rootEmotion, energyLevel, environment), vetted);
+        return true;
+    }
+
+    // Substring match on the normalized text, so "my home office" lands in "home"
+    String environmentOf(String comfortEnvironment) {
+        String normalized = SuggestionFingerprint.normalize(comfortEnvironment);
+        for (String environment : environments) {
+            if (normalized.contains(environment)) {
+                return environment;
+            }
+        }
+        return ANY_ENVIRONMENT;
+    }
+
+    private static boolean isPersonal(MoodEntry moodEntry) {
+        return (moodEntry.getDescription() != null && !moodEntry.getDescription().isBlank())
+                || (moodEntry.getPassion() != null && !moodEntry.getPassion().isBlank());
+    }
+
+    // Only well-formed, plausible activities are served without a per-entry model call
+    private static boolean isVetted(ActivitySuggestion suggestion) {
+        String description = suggestion.getDescription();
+        return description != null && description.length() >= 20 && description.length() <= 500
+                && ACTIVITY_TYPES.contains(suggestion.getType())
+                && inRange(suggestion.getDurationMinutes(), 1, 120)
+                && inRange(suggestion.getDifficulty(), 1, 5)
+                && inRange(suggestion.getPriority(), 1, 5);
+    }
+
+    private static boolean inRange(Integer value, int min, int max) {
+        return value != null && value >= min && value <= max;
+    }
+
+    private record Cell(String rootEmotion, int energyLevel, String environment) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.mentalapp.ai;
+
+import com.mentalapp.model.MoodEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Suggestions generated overnight by {@code SuggestionPregenerationJob} for each active
+ * user's predicted next check-in. A set is served once, to the user's first entry whose
+ * fingerprint (ignoring the description) matches the prediction, and expires after {@code ttl}.
+ * Entries with a description or a location never get one: the set was generated without
+ * seeing them, and the match does not compare them.
+ */
+@Component
+@Slf4j
+public class PregeneratedSuggestions {
+
+    private final Map<Long, PregeneratedSet> byUser = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Counter hits;
+    private final Counter mismatches;
+    private final Counter personal;
+    private final Counter absent;
+    private volatile double coverage;
+
+    public PregeneratedSuggestions(MeterRegistry meterRegistry,
+            @Value("${suggestions.pregenerated.enabled:false}") boolean enabled,
+            @Value("${suggestions.pregenerated.ttl:24h}") Duration ttl) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.mismatches = lookupCounter(meterRegistry, "mismatch");
+        this.personal = lookupCounter(meterRegistry, "personal");
+        this.absent = lookupCounter(meterRegistry, "none");
+        Gauge.builder("suggestions.pregenerated.sets", byUser, Map::size)
+                .description("Pre-generated suggestion sets waiting to be served")
+                .register(meterRegistry);
+        Gauge.builder("suggestions.pregenerated.coverage", this, store -> store.coverage)
+                .description("Share of active users the last pre-generation run prepared a set for")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the user's set if it was generated for this entry's state, or null; a returned
+     *         set is removed so it is not served twice
+     */
+    public List<ActivitySuggestion> take(MoodEntry moodEntry) {
+        if (!enabled || moodEntry.getUser() == null || moodEntry.getUser().getId() == null) {
+            return null;
+        }
+        if (isPersonal(moodEntry)) {
+            personal.increment();
+            return null;
+        }
+        Long userId = moodEntry.getUser().getId();
+        PregeneratedSet set = byUser.get(userId);
+        if (set == null || set.expiresAt().isBefore(Instant.now())) {
+            absent.increment();
+            return null;
+        }
+        if (!set.fingerprint().equals(fingerprint(moodEntry)) || !byUser.remove(userId, set)) {
+            mismatches.increment();
+            return null;
+        }
+        hits.increment();
+        return set.suggestions();
+    }
+
+    public void put(Long userId, MoodEntry predicted, List<ActivitySuggestion> suggestions) {
+        byUser.put(userId, new PregeneratedSet(fingerprint(predicted), List.copyOf(suggestions),
+                Instant.now().plus(ttl)));
+    }
+
+    /**
+     * Records the outcome of a run and drops sets that have expired.
+     */
+    public void completeRun(int activeUsers, int covered) {
+        coverage = activeUsers == 0 ? 0 : (double) covered / activeUsers;
+        Instant now = Instant.now();
+        byUser.values().removeIf(set -> set.expiresAt().isBefore(now));
+        log.info("Pre-generated suggestions for {} of {} active users", covered, activeUsers);
+    }
+
+    public static SuggestionFingerprint fingerprint(MoodEntry moodEntry) {
+        return SuggestionFingerprint.of(moodEntry, false);
+    }
+
+    private static boolean isPersonal(MoodEntry moodEntry) {
+        return hasText(moodEntry.getDescription()) || hasText(moodEntry.getLocation());
+    }
+
+    private static boolean hasText(String text) {
+        return text != null && !text.isBlank();
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("suggestions.pregenerated.lookups")
+                .description("Check-ins looked up in the pre-generated sets, by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record PregeneratedSet(SuggestionFingerprint fingerprint, List<ActivitySuggestion> suggestions,
+            Instant expiresAt) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.mentalapp.ai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mentalapp.model.MoodEntry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Gemini suggestions keyed by {@link SuggestionFingerprint}, so near-identical mood entries
+ * reuse an earlier answer instead of making another call. Cached answers are shared between
+ * users, so an answer is only stored if every piece of free text in its prompt is part of the
+ * key.
+ */
+@Component
+@Slf4j
+public class SuggestionCache {
+
+    /**
+     * How the free-text description takes part in caching: {@code EXCLUDE} leaves it out of
+     * the key, so entries with one read shared answers but never store theirs; {@code INCLUDE}
+     * adds it (normalized) to the key; {@code BYPASS} skips the cache for entries that have one.
+     */
+    public enum DescriptionPolicy {
+        EXCLUDE,
+        INCLUDE,
+        BYPASS
+    }
+
+    private final Cache<SuggestionFingerprint, List<ActivitySuggestion>> cache;
+    private final boolean enabled;
+    private final DescriptionPolicy descriptionPolicy;
+
+    public SuggestionCache(MeterRegistry meterRegistry,
+            @Value("${suggestions.cache.enabled:true}") boolean enabled,
+            @Value("${suggestions.cache.max-size:10000}") long maxSize,
+            @Value("${suggestions.cache.ttl:6h}") Duration ttl,
+            @Value("${suggestions.cache.description-policy:EXCLUDE}") DescriptionPolicy descriptionPolicy) {
+        this.enabled = enabled;
+        this.descriptionPolicy = descriptionPolicy;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "suggestions");
+    }
+
+    /**
+     * @return the entry's cache key, or null if this entry must not use the cache
+     */
+    public SuggestionFingerprint fingerprint(MoodEntry moodEntry) {
+        if (!enabled) {
+            return null;
+        }
+        if (hasText(moodEntry.getDescription()) && descriptionPolicy == DescriptionPolicy.BYPASS) {
+            return null;
+        }
+        return SuggestionFingerprint.of(moodEntry, descriptionPolicy == DescriptionPolicy.INCLUDE);
+    }
+
+    public List<ActivitySuggestion> get(SuggestionFingerprint fingerprint) {
+        return fingerprint == null ? null : cache.getIfPresent(fingerprint);
+    }
+
+    /**
+     * Stores the answer generated for this entry, unless its prompt held free text that the key
+     * leaves out; another user's entry with the same key would otherwise be served an answer
+     * shaped by it.
+     */
+    public void put(SuggestionFingerprint fingerprint, MoodEntry moodEntry, List<ActivitySuggestion> suggestions) {
+        if (fingerprint != null && isShareable(moodEntry)) {
+            cache.put(fingerprint, List.copyOf(suggestions));
+            log.debug("Cached {} suggestions for fingerprint {}", suggestions.size(), fingerprint);
+        }
+    }
+
+    private boolean isShareable(MoodEntry moodEntry) {
+        // Location is never part of the key
+        if (hasText(moodEntry.getLocation())) {
+            return false;
+        }
+        return descriptionPolicy == DescriptionPolicy.INCLUDE || !hasText(moodEntry.getDescription());
+    }
+
+    private static boolean hasText(String text) {
+        return text != null && !text.isBlank();
+    }
+}
@@ -0,0 +1,18 @@
+package com.mentalapp.ai;
+
+import com.mentalapp.model.MoodEntry;
+
+import java.util.List;
+
+/**
+ * Source of activity suggestions for a mood entry. Engines return what they can answer
+ * well; callers decide whether to pad a short answer or ask another engine.
+ */
+public interface SuggestionEngine {
+
+    /**
+     * @return up to {@code count} suggestions, best first; fewer, or none, if the engine
+     *         has nothing suitable for this entry
+     */
+    List<ActivitySuggestion> suggest(MoodEntry moodEntry, int count);
+}
@@ -0,0 +1,53 @@
+package com.mentalapp.ai;
+
+import com.mentalapp.model.Emotion;
+import com.mentalapp.model.MoodEntry;
+import lombok.Value;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Canonical form of the mood entry fields that drive the suggestion prompt. Two entries
+ * with the same fingerprint would send Gemini an equivalent request.
+ */
+@Value
+public class SuggestionFingerprint {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Sorted, comma separated emotion ids
+    String emotionIds;
+    Integer energyLevel;
+    String comfortEnvironment;
+    String passion;
+    // Only set when the description policy includes it
+    String description;
+
+    public static SuggestionFingerprint of(MoodEntry moodEntry, boolean includeDescription) {
+        String emotionIds = moodEntry.getEmotions() == null ? "" : moodEntry.getEmotions().stream()
+                .map(Emotion::getId)
+                .filter(Objects::nonNull)
+                .sorted()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        return new SuggestionFingerprint(
+                emotionIds,
+                moodEntry.getEnergyLevel(),
+                normalize(moodEntry.getComfortEnvironment()),
+                normalize(moodEntry.getPassion()),
+                includeDescription ? normalize(moodEntry.getDescription()) : null);
+    }
+
+    // Case, Unicode form and whitespace differences do not change the prompt's meaning
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,125 @@
+package com.mentalapp.ai;
+
+import com.mentalapp.exception.GeminiResponseFormatException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Meters for suggestion generation, alongside {@code gemini.http.requests} from
+ * {@link GeminiClient}: prompt build and parse timers, outcome counters by source, and
+ * prompt, response and token sizes for capacity planning of LLM spend.
+ */
+@Component
+public class SuggestionMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Timer promptBuild;
+    private final Timer parse;
+    private final Counter parseFailures;
+    private final Counter padded;
+    private final DistributionSummary promptSize;
+    private final DistributionSummary responseSize;
+    private final DistributionSummary promptTokens;
+    private final DistributionSummary candidatesTokens;
+    private final DistributionSummary totalTokens;
+
+    public SuggestionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.promptBuild = Timer.builder("gemini.prompt.build")
+                .description("Time to build a Gemini prompt")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.parse = Timer.builder("gemini.response.parse")
+                .description("Time to decode a Gemini response into activities")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.parseFailures = Counter.builder("gemini.response.parse.failures")
+                .description("Gemini responses that could not be decoded")
+                .register(meterRegistry);
+        this.padded = Counter.builder("suggestions.padded")
+                .description("Entries whose Gemini answer was short and padded with fallback activities")
+                .register(meterRegistry);
+        this.promptSize = size("gemini.prompt.size", "characters", "Prompt length");
+        this.responseSize = size("gemini.response.size", "characters", "Response body length");
+        this.promptTokens = tokens("prompt");
+        this.candidatesTokens = tokens("candidates");
+        this.totalTokens = tokens("total");
+    }
+
+    public String buildPrompt(Supplier<String> builder) {
+        String prompt = promptBuild.record(builder);
+        promptSize.record(prompt.length());
+        return prompt;
+    }
+
+    /**
+     * Decodes a response, timing the parse and counting failures.
+     */
+    public <T> T parse(String response, Function<String, T> decoder) {
+        responseSize.record(response.length());
+        long start = System.nanoTime();
+        try {
+            return decoder.apply(response);
+        } catch (GeminiResponseFormatException e) {
+            parseFailures.increment();
+            throw e;
+        } finally {
+            parse.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordUsage(GeminiResponseDecoder.Usage usage) {
+        if (usage != null) {
+            promptTokens.record(usage.getPromptTokens());
+            candidatesTokens.record(usage.getCandidatesTokens());
+            totalTokens.record(usage.getTotalTokens());
+        }
+    }
+
+    public void countParseFailure() {
+        parseFailures.increment();
+    }
+
+    /**
+     * Counts an entry whose suggestions came from {@code source}: gemini, cache, pregenerated,
+     * precomputed or local.
+     */
+    public void countGenerated(String source) {
+        meterRegistry.counter("suggestions.generated", "source", source).increment();
+    }
+
+    public void countPadded() {
+        padded.increment();
+    }
+
+    /**
+     * Counts an entry that got only fallback activities.
+     */
+    public void countFallback(String reason) {
+        meterRegistry.counter("suggestions.fallback", "reason", reason).increment();
+    }
+
+    private DistributionSummary size(String name, String unit, String description) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit(unit)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary tokens(String type) {
+        return DistributionSummary.builder("gemini.tokens")
+                .description("Tokens per Gemini call, from the response's usage metadata")
+                .baseUnit("tokens")
+                .tag("type", type)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+}
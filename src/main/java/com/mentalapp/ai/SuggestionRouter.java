@@ -0,0 +1,68 @@
+package com.mentalapp.ai;
+
+import com.mentalapp.model.MoodEntry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Decides per mood entry whether suggestions come from the local engine or from Gemini.
+ * {@code REMOTE} always asks Gemini, {@code LOCAL} never does, and {@code HYBRID} answers
+ * locally when the local engine has a full, confident answer and sends unusual entries
+ * (uncovered emotions, or free-text descriptions if configured) to Gemini.
+ */
+@Component
+@Slf4j
+public class SuggestionRouter {
+
+    public enum Mode {
+        REMOTE,
+        LOCAL,
+        HYBRID
+    }
+
+    private final SuggestionEngine localEngine;
+    private final MeterRegistry meterRegistry;
+    private final Mode mode;
+    private final boolean remoteForDescriptions;
+
+    public SuggestionRouter(LocalSuggestionEngine localEngine, MeterRegistry meterRegistry,
+            @Value("${suggestions.engine.mode:REMOTE}") Mode mode,
+            @Value("${suggestions.engine.hybrid.remote-for-descriptions:true}") boolean remoteForDescriptions) {
+        this.localEngine = localEngine;
+        this.meterRegistry = meterRegistry;
+        this.mode = mode;
+        this.remoteForDescriptions = remoteForDescriptions;
+        log.info("Suggestion engine mode: {}", mode);
+    }
+
+    /**
+     * @return local suggestions to use instead of calling Gemini, possibly fewer than
+     *         {@code count} in {@code LOCAL} mode; null if the entry should go to Gemini
+     */
+    public List<ActivitySuggestion> suggestLocally(MoodEntry moodEntry, int count) {
+        if (mode == Mode.REMOTE) {
+            return null;
+        }
+        if (mode == Mode.HYBRID && remoteForDescriptions
+                && moodEntry.getDescription() != null && !moodEntry.getDescription().isBlank()) {
+            count("remote", "description");
+            return null;
+        }
+
+        List<ActivitySuggestion> suggestions = localEngine.suggest(moodEntry, count);
+        if (mode == Mode.LOCAL || suggestions.size() >= count) {
+            count("local", suggestions.size() >= count ? "confident" : "partial");
+            return suggestions;
+        }
+        count("remote", "not-covered");
+        return null;
+    }
+
+    private void count(String engine, String reason) {
+        meterRegistry.counter("suggestions.routed", "engine", engine, "reason", reason).increment();
+    }
+}
@@ -0,0 +1,33 @@
+package com.mentalapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Runs suggestion generation off the request thread. Work is I/O bound (waiting on the
+     * LLM), so the pool can be larger than the core count; the queue is bounded so a stalled
+     * provider surfaces as rejected work instead of unbounded memory.
+     */
+    @Bean(name = "suggestionExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor suggestionExecutor(
+            @Value("${suggestions.async.threads:8}") int threads,
+            @Value("${suggestions.async.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("suggestions-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,29 @@
+package com.mentalapp.config;
+
+import com.mentalapp.model.ActivityTemplate;
+import org.hibernate.Interceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateConfig {
+
+    /**
+     * Activity templates have assigned ids and are only ever written by
+     * {@code ActivityTemplateInterner}, so any instance Hibernate meets is already stored.
+     * Saying so stops Hibernate from selecting each referenced template to find out whether
+     * it is transient before inserting the rows that point at it.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer storedTemplatesCustomizer() {
+        Interceptor interceptor = new Interceptor() {
+            @Override
+            public Boolean isTransient(Object entity) {
+                return entity instanceof ActivityTemplate ? Boolean.FALSE : null;
+            }
+        };
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, interceptor);
+    }
+}
@@ -0,0 +1,26 @@
+package com.mentalapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class HttpClientConfig {
+
+    /**
+     * Shared client for Gemini calls. It negotiates HTTP/2 (falling back to keep-alive
+     * HTTP/1.1), so concurrent calls are multiplexed over pooled connections instead of
+     * opening a socket per request.
+     */
+    @Bean
+    public HttpClient geminiHttpClient(@Value("${gemini.http.connect-timeout:2s}") Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+}
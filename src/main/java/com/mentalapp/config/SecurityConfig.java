@@ -1,6 +1,9 @@
 package com.mentalapp.config;
 
+import com.mentalapp.security.BoundedPasswordEncoder;
 import com.mentalapp.security.JwtAuthenticationFilter;
+import com.mentalapp.security.PasswordHashingExecutor;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,7 +17,6 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -33,9 +35,12 @@ public class SecurityConfig {
 
         private final JwtAuthenticationFilter jwtAuthFilter;
 
+        private final PasswordHashingExecutor passwordHashingExecutor;
+
         @Bean
-        public PasswordEncoder passwordEncoder() {
-                return new BCryptPasswordEncoder();
+        public BoundedPasswordEncoder passwordEncoder() {
+                // BCrypt runs on a bounded pool so hashing cannot starve request threads
+                return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingExecutor);
         }
 
         @Bean
@@ -45,11 +50,15 @@ public class SecurityConfig {
                                 .csrf(csrf -> csrf.disable())
                                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                                 .authorizeHttpRequests(authz -> authz
+                                                // Async dispatches finish responses (SSE) whose request was already authorized
+                                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                                 // Public endpoints
                                                 .requestMatchers(
                                                                 "/api/auth/login",
                                                                 "/api/auth/register",
                                                                 "/api/auth/refresh",
+                                                                // Verifies and revokes the presented token itself
+                                                                "/api/auth/logout",
                                                                 "/api/auth/google/callback",
                                                                 "/api/auth/forgot-password",
                                                                 "/api/auth/reset-password",
@@ -0,0 +1,38 @@
+package com.mentalapp.controller;
+
+import com.mentalapp.dto.ApiResponse;
+import com.mentalapp.dto.BulkRegistrationResponse;
+import com.mentalapp.service.UserOnboardingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminUserController {
+
+    private final UserOnboardingService userOnboardingService;
+
+    /**
+     * Bulk registration for onboarding an organisation from a CSV file (username,email,password)
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> registerUsers(@RequestParam("file") MultipartFile file) {
+        log.info("Bulk registration request received: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+
+        try {
+            BulkRegistrationResponse response = userOnboardingService.registerUsers(file.getInputStream());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Bulk registration failed", e);
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "Bulk registration failed: " + e.getMessage()));
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.mentalapp.controller;
 
 import com.mentalapp.dto.*;
+import com.mentalapp.exception.InvalidRefreshTokenException;
+import com.mentalapp.exception.ServiceBusyException;
 import com.mentalapp.model.User;
 import com.mentalapp.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -38,6 +42,9 @@ public class AuthController {
                     .buildAndExpand(result.getId())
                     .toUri();
             return ResponseEntity.created(location).body(new ApiResponse(true, "User registered successfully"));
+        } catch (ServiceBusyException e) {
+            log.warn("Registration rejected for username: {}: {}", request.getUsername(), e.getMessage());
+            return serviceBusy(e);
         } catch (Exception e) {
             log.error("Registration failed for username: {}", request.getUsername(), e);
             return ResponseEntity.badRequest().body(new ApiResponse(false, "Registration failed: " + e.getMessage()));
@@ -52,11 +59,31 @@ public class AuthController {
         try {
             ResponseEntity response = userService.authenticateUser(req);
             return ResponseEntity.ok(response);
+        } catch (ServiceBusyException e) {
+            log.warn("Login rejected: {}", e.getMessage());
+            return serviceBusy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ApiResponse(false, "Login failed: " + e.getMessage()));
         }
     }
 
+    /**
+     * Exchanges a refresh token for a new access token and a rotated refresh token
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            return ResponseEntity.ok(userService.refreshToken(request));
+        } catch (InvalidRefreshTokenException e) {
+            log.warn("Token refresh rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse(false, "Token refresh failed: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Token refresh failed", e);
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "Token refresh failed: " + e.getMessage()));
+        }
+    }
+
 //    @PostMapping("/google")
 //    public ResponseEntity<?> googleAuth(@Valid @RequestBody GoogleAuthRequest req) {
 //        try {
@@ -143,12 +170,17 @@ public class AuthController {
      * Logout endpoint
      */
     @PostMapping("/logout")
-    public ResponseEntity<?> logout() {
+    public ResponseEntity<?> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) RefreshTokenRequest request) {
         log.info("Logout request received");
 
         try {
-            // TODO: Implement token blacklisting or invalidation
-            // For now, just return success response
+            // Revoke whatever was presented; without a token there is nothing to invalidate
+            String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                    ? authorization.substring(7)
+                    : null;
+            userService.logout(accessToken, request != null ? request.getRefreshToken() : null);
             log.info("User logged out successfully");
             return ResponseEntity.ok(new ApiResponse(true, "Logged out successfully"));
         } catch (Exception e) {
@@ -166,6 +198,12 @@ public class AuthController {
         return ResponseEntity.ok(new ApiResponse(true, "Authentication service is running"));
     }
 
+    private ResponseEntity<ApiResponse> serviceBusy(ServiceBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ApiResponse(false, e.getMessage()));
+    }
+
     /**
      * Update current user profile (requires authentication)
      */
@@ -4,13 +4,18 @@ import com.mentalapp.model.User;
 import com.mentalapp.dto.MoodEntryCreateRequest;
 import com.mentalapp.dto.MoodEntryResponse;
 import com.mentalapp.dto.MoodEntryUpdateRequest;
+import com.mentalapp.dto.SuggestionStatusResponse;
+import com.mentalapp.ratelimit.RateLimited;
+import com.mentalapp.security.CurrentUser;
 import com.mentalapp.service.MoodEntryService;
+import com.mentalapp.service.SuggestionNotifier;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,11 +26,14 @@ import java.util.List;
 public class MoodEntryController {
 
     private final MoodEntryService moodEntryService;
+    private final SuggestionNotifier suggestionNotifier;
 
+    // Each create triggers an LLM call, so it is limited per user
     @PostMapping
+    @RateLimited("mood-entry-create")
     public ResponseEntity<MoodEntryResponse> createMoodEntry(
             @Valid @RequestBody MoodEntryCreateRequest request,
-            @AuthenticationPrincipal User user) {
+            @CurrentUser User user) {
         MoodEntryResponse response = moodEntryService.createMoodEntry(request, user);
         return ResponseEntity.ok(response);
     }
@@ -33,14 +41,30 @@ public class MoodEntryController {
     @GetMapping("/{id}")
     public ResponseEntity<MoodEntryResponse> getMoodEntryById(
             @PathVariable Long id,
-            @AuthenticationPrincipal User user) {
+            @CurrentUser User user) {
         return ResponseEntity.ok(moodEntryService.getMoodEntryById(id, user));
     }
 
+    @GetMapping("/{id}/suggestions")
+    public ResponseEntity<SuggestionStatusResponse> getSuggestions(
+            @PathVariable Long id,
+            @CurrentUser User user) {
+        return ResponseEntity.ok(moodEntryService.getSuggestionStatus(id, user));
+    }
+
+    // Emits a single "suggestions" event once generation has finished
+    @GetMapping(value = "/{id}/suggestions/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSuggestions(
+            @PathVariable Long id,
+            @CurrentUser User user) {
+        moodEntryService.getSuggestionStatus(id, user);
+        return suggestionNotifier.subscribe(id, () -> moodEntryService.getSuggestionStatus(id, user));
+    }
+
     @GetMapping
     public ResponseEntity<List<MoodEntryResponse>> getMoodEntriesByDate(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date,
-            @AuthenticationPrincipal User user) {
+            @CurrentUser User user) {
         return ResponseEntity.ok(moodEntryService.getMoodEntriesByDate(user, date));
     }
 
@@ -48,7 +72,7 @@ public class MoodEntryController {
     public ResponseEntity<Void> updateMoodEntry(
             @PathVariable Long id,
             @Valid @RequestBody MoodEntryUpdateRequest request,
-            @AuthenticationPrincipal User user) {
+            @CurrentUser User user) {
         moodEntryService.updateMoodEntry(id, request, user);
         return ResponseEntity.ok().build();
     }
@@ -56,7 +80,7 @@ public class MoodEntryController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteMoodEntry(
             @PathVariable Long id,
-            @AuthenticationPrincipal User user) {
+            @CurrentUser User user) {
         moodEntryService.deleteMoodEntry(id, user);
         return ResponseEntity.ok().build();
     }
@@ -0,0 +1,17 @@
+package com.mentalapp.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BulkRegistrationResponse {
+    private int totalRows;
+    private int inserted;
+    private int duplicates;
+    private int invalid;
+    private List<String> errors = new ArrayList<>();
+}
@@ -23,6 +23,7 @@ public class MoodEntryResponse {
     private String passion;
     private Set<EmotionResponse> emotions;
     private Set<SuggestedActivityResponse> suggestedActivities;
+    private String suggestionStatus;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private Boolean isFromToday;
@@ -0,0 +1,17 @@
+package com.mentalapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionStatusResponse {
+
+    private Long moodEntryId;
+    private String status;
+    private Set<MoodEntryResponse.SuggestedActivityResponse> suggestedActivities;
+}
@@ -0,0 +1,14 @@
+package com.mentalapp.event;
+
+import lombok.Value;
+
+/**
+ * Published inside the transaction that creates a mood entry. Listeners that need the
+ * row to be visible should react after commit.
+ */
+@Value
+public class MoodEntryCreatedEvent {
+
+    Long moodEntryId;
+    Long userId;
+}
@@ -0,0 +1,23 @@
+package com.mentalapp.exception;
+
+import lombok.Getter;
+
+/**
+ * A Gemini call that failed: non-2xx status, timeout, or I/O error. {@code statusCode}
+ * is 0 when no response was received.
+ */
+@Getter
+public class GeminiClientException extends RuntimeException {
+
+    private final int statusCode;
+
+    public GeminiClientException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public GeminiClientException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = 0;
+    }
+}
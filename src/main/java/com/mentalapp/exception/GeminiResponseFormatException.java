@@ -0,0 +1,15 @@
+package com.mentalapp.exception;
+
+/**
+ * A Gemini answer arrived but could not be decoded into activities.
+ */
+public class GeminiResponseFormatException extends RuntimeException {
+
+    public GeminiResponseFormatException(String message) {
+        super(message);
+    }
+
+    public GeminiResponseFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
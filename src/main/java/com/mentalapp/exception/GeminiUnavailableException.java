@@ -0,0 +1,18 @@
+package com.mentalapp.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown instead of calling Gemini when the circuit breaker is open or the bulkhead is
+ * full. It is expected on the fast path, so no stack trace is captured.
+ */
+@Getter
+public class GeminiUnavailableException extends RuntimeException {
+
+    private final String reason;
+
+    public GeminiUnavailableException(String reason) {
+        super("Gemini call not permitted: " + reason, null, false, false);
+        this.reason = reason;
+    }
+}
@@ -6,18 +6,19 @@ import com.mentalapp.model.SuggestedActivity;
 import com.mentalapp.dto.MoodEntryCreateRequest;
 import com.mentalapp.dto.MoodEntryResponse;
 import com.mentalapp.dto.MoodEntryUpdateRequest;
-import com.mentalapp.repository.EmotionRepository;
+import com.mentalapp.dto.SuggestionStatusResponse;
+import com.mentalapp.service.EmotionRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.Set;
+import java.util.HashSet;
 import java.util.stream.Collectors;
 
 @Component
 public class MoodEntryMapper {
 
     @Autowired
-    private EmotionRepository emotionRepository;
+    private EmotionRegistry emotionRegistry;
 
     public MoodEntry toEntity(MoodEntryCreateRequest request) {
         if (request == null) {
@@ -34,12 +35,8 @@ public class MoodEntryMapper {
 
         // Map emotions by IDs
         if (request.getEmotionIds() != null && !request.getEmotionIds().isEmpty()) {
-            Set<Emotion> emotions = request.getEmotionIds().stream()
-                    .map(emotionRepository::findById)
-                    .filter(opt -> opt.isPresent())
-                    .map(opt -> opt.get())
-                    .collect(Collectors.toSet());
-            moodEntry.setEmotions(emotions);
+            // Resolved from the in-memory taxonomy; unknown ids are skipped
+            moodEntry.setEmotions(new HashSet<>(emotionRegistry.resolve(request.getEmotionIds())));
         }
 
         return moodEntry;
@@ -60,6 +57,7 @@ public class MoodEntryMapper {
         response.setDescription(moodEntry.getDescription());
         response.setEnergyLevel(moodEntry.getEnergyLevel());
         response.setPassion(moodEntry.getPassion());
+        response.setSuggestionStatus(moodEntry.getSuggestionStatus() != null ? moodEntry.getSuggestionStatus().name() : null);
         response.setCreatedAt(moodEntry.getCreatedAt());
         response.setUpdatedAt(moodEntry.getUpdatedAt());
         response.setIsFromToday(moodEntry.isFromToday());
@@ -81,6 +79,22 @@ public class MoodEntryMapper {
         return response;
     }
 
+    public SuggestionStatusResponse toSuggestionStatusResponse(MoodEntry moodEntry) {
+        if (moodEntry == null) {
+            return null;
+        }
+
+        SuggestionStatusResponse response = new SuggestionStatusResponse();
+        response.setMoodEntryId(moodEntry.getId());
+        response.setStatus(moodEntry.getSuggestionStatus() != null ? moodEntry.getSuggestionStatus().name() : null);
+        if (moodEntry.getSuggestedActivities() != null) {
+            response.setSuggestedActivities(moodEntry.getSuggestedActivities().stream()
+                    .map(this::mapActivity)
+                    .collect(Collectors.toSet()));
+        }
+        return response;
+    }
+
     public void updateEntity(MoodEntry entity, MoodEntryUpdateRequest request) {
         if (request == null || entity == null) {
             return;
@@ -104,12 +118,7 @@ public class MoodEntryMapper {
 
         // Update emotions if provided
         if (request.getEmotionIds() != null) {
-            Set<Emotion> emotions = request.getEmotionIds().stream()
-                    .map(emotionRepository::findById)
-                    .filter(opt -> opt.isPresent())
-                    .map(opt -> opt.get())
-                    .collect(Collectors.toSet());
-            entity.setEmotions(emotions);
+            entity.setEmotions(new HashSet<>(emotionRegistry.resolve(request.getEmotionIds())));
         }
     }
 
@@ -126,6 +135,10 @@ public class MoodEntryMapper {
         return response;
     }
 
+    public MoodEntryResponse.SuggestedActivityResponse toActivityResponse(SuggestedActivity activity) {
+        return mapActivity(activity);
+    }
+
     private MoodEntryResponse.SuggestedActivityResponse mapActivity(SuggestedActivity activity) {
         if (activity == null) {
             return null;
@@ -0,0 +1,78 @@
+package com.mentalapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Immutable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * The content of a suggested activity, shared by every entry it was suggested for. Rows are
+ * content-addressed: the id is the SHA-256 of the fields, so the same activity is stored once
+ * however many times it is suggested, and rows never change. Lazy references are loaded in
+ * batches, so listing activities costs one extra query rather than one per activity.
+ */
+@Entity
+@Table(name = "activity_templates")
+@Immutable
+@BatchSize(size = 50)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ActivityTemplate {
+
+    // Separates fields in the hashed form; V15__activity_templates.sql hashes the same way
+    private static final char SEPARATOR = '\u001F';
+
+    @Id
+    @Column(name = "id", length = 64)
+    private String id;
+
+    @Column(name = "description", columnDefinition = "TEXT", nullable = false)
+    private String description;
+
+    @Column(name = "activity_type", length = 100)
+    private String activityType;
+
+    @Column(name = "estimated_duration_minutes")
+    private Integer estimatedDurationMinutes;
+
+    @Column(name = "difficulty_level")
+    private Integer difficultyLevel;
+
+    @Column(name = "priority_level")
+    private Integer priorityLevel;
+
+    public static ActivityTemplate of(String description, String activityType, Integer estimatedDurationMinutes,
+            Integer difficultyLevel, Integer priorityLevel) {
+        return new ActivityTemplate(contentHash(description, activityType, estimatedDurationMinutes,
+                difficultyLevel, priorityLevel), description, activityType, estimatedDurationMinutes,
+                difficultyLevel, priorityLevel);
+    }
+
+    static String contentHash(String description, String activityType, Integer estimatedDurationMinutes,
+            Integer difficultyLevel, Integer priorityLevel) {
+        String content = text(activityType) + SEPARATOR + text(estimatedDurationMinutes) + SEPARATOR
+                + text(difficultyLevel) + SEPARATOR + text(priorityLevel) + SEPARATOR + text(description);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String text(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
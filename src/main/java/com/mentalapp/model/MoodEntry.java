@@ -2,7 +2,9 @@ package com.mentalapp.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -17,11 +19,16 @@ import java.util.Set;
 public class MoodEntry {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mood_entries_seq")
+    @SequenceGenerator(name = "mood_entries_seq", sequenceName = "mood_entries_id_seq", allocationSize = 50)
     private Long id;
 
+    // Associations stay out of equals/hashCode/toString so hashing an entry never walks
+    // lazy collections (or back through its activities into itself)
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User user;
 
     @Column(name = "entry_date", nullable = false)
@@ -42,11 +49,19 @@ public class MoodEntry {
     @Column(name = "passion", length = 100)
     private String passion;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "suggestion_status", nullable = false, length = 20)
+    private SuggestionStatus suggestionStatus = SuggestionStatus.READY;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "mood_entry_emotions", joinColumns = @JoinColumn(name = "mood_entry_id"), inverseJoinColumns = @JoinColumn(name = "emotion_id"))
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<Emotion> emotions = new HashSet<>();
 
     @OneToMany(mappedBy = "moodEntry", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<SuggestedActivity> suggestedActivities = new HashSet<>();
 
     @CreationTimestamp
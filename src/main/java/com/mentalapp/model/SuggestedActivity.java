@@ -3,7 +3,9 @@ package com.mentalapp.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -17,15 +19,22 @@ import java.time.LocalDateTime;
 public class SuggestedActivity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "suggested_activities_seq")
+    @SequenceGenerator(name = "suggested_activities_seq", sequenceName = "suggested_activities_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "mood_entry_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private MoodEntry moodEntry;
 
-    @Column(name = "activity_description", columnDefinition = "TEXT", nullable = false)
-    private String activityDescription;
+    // Shared, immutable content; this row keeps only the per-entry state
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "template_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private ActivityTemplate template;
 
     @Column(name = "is_completed", nullable = false)
     private Boolean isCompleted = false;
@@ -33,18 +42,6 @@ public class SuggestedActivity {
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
-    @Column(name = "activity_type", length = 100)
-    private String activityType;
-
-    @Column(name = "estimated_duration_minutes")
-    private Integer estimatedDurationMinutes;
-
-    @Column(name = "difficulty_level")
-    private Integer difficultyLevel;
-
-    @Column(name = "priority_level")
-    private Integer priorityLevel;
-
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -53,6 +50,31 @@ public class SuggestedActivity {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    public SuggestedActivity(MoodEntry moodEntry, ActivityTemplate template) {
+        this.moodEntry = moodEntry;
+        this.template = template;
+    }
+
+    public String getActivityDescription() {
+        return template.getDescription();
+    }
+
+    public String getActivityType() {
+        return template.getActivityType();
+    }
+
+    public Integer getEstimatedDurationMinutes() {
+        return template.getEstimatedDurationMinutes();
+    }
+
+    public Integer getDifficultyLevel() {
+        return template.getDifficultyLevel();
+    }
+
+    public Integer getPriorityLevel() {
+        return template.getPriorityLevel();
+    }
+
     public void markAsCompleted() {
         this.isCompleted = true;
         this.completedAt = LocalDateTime.now();
@@ -0,0 +1,11 @@
+package com.mentalapp.model;
+
+/**
+ * Progress of the activity suggestions for a mood entry. Entries are created
+ * {@code PENDING} and move to {@code READY} or {@code FAILED} once generation finishes.
+ */
+public enum SuggestionStatus {
+    PENDING,
+    READY,
+    FAILED
+}
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
@@ -14,6 +16,9 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "users")
@@ -22,7 +27,8 @@ import java.util.Collections;
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
     @Email
     @Column(name = "email", unique = true, nullable = false, length = 255)
@@ -43,6 +49,14 @@ public class User implements UserDetails {
     @Column(name = "auth_provider", length = 50)
     private String authProvider;
 
+    // Role names without the ROLE_ prefix; loaded explicitly where authorities are needed
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
+    @Column(name = "role", length = 50)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Set<String> roles = new HashSet<>();
+
     // public String getFullName() {
     // if (firstName != null && lastName != null) {
     // return firstName + " " + lastName;
@@ -75,9 +89,13 @@ public class User implements UserDetails {
     // UserDetails implementation
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        // For now, return a default role. In a real application, you'd have a roles
-        // table
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+        // Users without rows in user_roles are plain users
+        if (roles == null || roles.isEmpty()) {
+            return Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+        }
+        return roles.stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .collect(Collectors.toList());
     }
 
     @Override
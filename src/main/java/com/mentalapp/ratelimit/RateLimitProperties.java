@@ -0,0 +1,31 @@
+package com.mentalapp.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+@Data
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Buckets untouched for this long are full again and can be dropped
+    private Duration idleEviction = Duration.ofMinutes(10);
+
+    private Map<String, Limit> endpoints = new HashMap<>();
+
+    @Data
+    public static class Limit {
+        // Requests allowed in a burst
+        private int capacity = 10;
+        // Tokens added back per refill period
+        private int refillTokens = 10;
+        private Duration refillPeriod = Duration.ofMinutes(1);
+    }
+}
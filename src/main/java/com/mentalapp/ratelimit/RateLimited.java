@@ -0,0 +1,17 @@
+package com.mentalapp.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Applies the per-user limit configured under {@code rate-limit.endpoints.<value>}
+ * to a controller method. Endpoints without configuration are not limited.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    String value();
+}
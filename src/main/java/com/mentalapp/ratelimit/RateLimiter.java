@@ -0,0 +1,115 @@
+package com.mentalapp.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free per-key token buckets, one set per configured endpoint.
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding its theoretical arrival time (the
+ * generic cell rate algorithm), so refill is computed lazily on access and an allowed request
+ * costs one map lookup and one compare-and-set. Idle buckets are evicted in the background.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimiter {
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, EndpointBuckets> endpoints = new ConcurrentHashMap<>();
+    private ScheduledExecutorService evictor;
+
+    @PostConstruct
+    void start() {
+        properties.getEndpoints().forEach((name, limit) -> endpoints.put(name, new EndpointBuckets(name, limit)));
+
+        long period = Math.max(1000L, properties.getIdleEviction().toMillis() / 2);
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        evictor.shutdownNow();
+    }
+
+    /**
+     * Takes one token from the caller's bucket for the endpoint.
+     *
+     * @return 0 if the request is allowed, otherwise the nanoseconds until it would be
+     */
+    public long tryAcquire(String endpoint, Object key) {
+        if (!properties.isEnabled()) {
+            return 0L;
+        }
+        EndpointBuckets buckets = endpoints.get(endpoint);
+        return buckets == null ? 0L : buckets.tryAcquire(key);
+    }
+
+    void evictIdle() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleEviction().toNanos();
+        endpoints.values().forEach(buckets -> buckets.evictIdle(now, idleNanos));
+    }
+
+    private final class EndpointBuckets {
+
+        private final Map<Object, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final long emissionInterval;
+        private final long burstTolerance;
+        private final Counter rejected;
+
+        EndpointBuckets(String name, RateLimitProperties.Limit limit) {
+            this.emissionInterval = Math.max(1L, limit.getRefillPeriod().toNanos() / Math.max(1, limit.getRefillTokens()));
+            this.burstTolerance = emissionInterval * Math.max(1, limit.getCapacity());
+            this.rejected = Counter.builder("rate.limit.rejected")
+                    .description("Requests rejected by the per-user rate limiter")
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+        }
+
+        long tryAcquire(Object key) {
+            long now = System.nanoTime();
+            AtomicLong bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+
+            while (true) {
+                long arrival = bucket.get();
+                long next = Math.max(arrival, now) + emissionInterval;
+                long allowedAt = next - burstTolerance;
+                if (allowedAt > now) {
+                    rejected.increment();
+                    return allowedAt - now;
+                }
+                if (bucket.compareAndSet(arrival, next)) {
+                    return 0L;
+                }
+            }
+        }
+
+        void evictIdle(long now, long idleNanos) {
+            // A bucket whose arrival time is this far in the past has fully refilled
+            buckets.values().removeIf(bucket -> now - bucket.get() > idleNanos);
+        }
+    }
+}
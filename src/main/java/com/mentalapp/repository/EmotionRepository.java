@@ -23,5 +23,8 @@ public interface EmotionRepository extends JpaRepository<Emotion, Long> {
     @Query("SELECT DISTINCT e FROM Emotion e LEFT JOIN FETCH e.children WHERE e.parent IS NULL")
     List<Emotion> findRootEmotionsWithChildren();
 
+    @Query("SELECT e FROM Emotion e LEFT JOIN FETCH e.parent")
+    List<Emotion> findAllWithParent();
+
     boolean existsByKey(String key);
 }
\ No newline at end of file
@@ -1,26 +1,90 @@
 package com.mentalapp.repository;
 
 import com.mentalapp.model.MoodEntry;
+import com.mentalapp.model.SuggestionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MoodEntryRepository extends JpaRepository<MoodEntry, Long> {
 
-    @Query("SELECT m FROM MoodEntry m WHERE m.user.id = :userId AND m.entryDate >= :startOfDay AND m.entryDate < :endOfDay")
-    List<MoodEntry> findByUserIdAndDate(@Param("userId") Long userId, @Param("startOfDay") LocalDateTime startOfDay,
-            @Param("endOfDay") LocalDateTime endOfDay);
-
     @Query("SELECT COUNT(m) FROM MoodEntry m WHERE m.user.id = :userId AND m.entryDate >= :startOfDay AND m.entryDate < :endOfDay")
     long countTodayEntriesByUserId(@Param("userId") Long userId, @Param("startOfDay") LocalDateTime startOfDay,
             @Param("endOfDay") LocalDateTime endOfDay);
 
-    @Query("SELECT m FROM MoodEntry m WHERE m.user.id = :userId AND m.entryDate >= :startDate AND m.entryDate < :endDate")
+    // Oldest first, with the user, emotions and their parents; activities are left to fetchSuggestedActivities
+    @Query("SELECT m FROM MoodEntry m JOIN FETCH m.user LEFT JOIN FETCH m.emotions e LEFT JOIN FETCH e.parent "
+            + "WHERE m.user.id = :userId AND m.entryDate >= :startDate AND m.entryDate < :endDate "
+            + "ORDER BY m.entryDate, m.id")
     List<MoodEntry> findByUserIdAndDateRange(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
+
+    // Fills the activities of already loaded entries in one query; a separate query avoids
+    // multiplying every emotion row by every activity row
+    @Query("SELECT m FROM MoodEntry m LEFT JOIN FETCH m.suggestedActivities sa LEFT JOIN FETCH sa.template "
+            + "WHERE m IN :entries")
+    List<MoodEntry> fetchSuggestedActivities(@Param("entries") Collection<MoodEntry> entries);
+
+    /**
+     * Entries in the range with everything {@code MoodEntryMapper.toResponse} reads, in two
+     * queries however many entries there are.
+     */
+    default List<MoodEntry> findWithDetailsByUserIdAndDateRange(Long userId, LocalDateTime startDate,
+            LocalDateTime endDate) {
+        List<MoodEntry> entries = findByUserIdAndDateRange(userId, startDate, endDate);
+        if (!entries.isEmpty()) {
+            fetchSuggestedActivities(entries);
+        }
+        return entries;
+    }
+
+    @EntityGraph(attributePaths = { "user", "emotions", "emotions.parent", "suggestedActivities",
+            "suggestedActivities.template" })
+    @Query("SELECT m FROM MoodEntry m WHERE m.id = :id")
+    Optional<MoodEntry> findWithDetailsById(@Param("id") Long id);
+
+    // Everything the suggestion prompt reads, so generation runs without an open session
+    @EntityGraph(attributePaths = { "emotions", "emotions.parent" })
+    @Query("SELECT m FROM MoodEntry m WHERE m.id = :id")
+    Optional<MoodEntry> findWithEmotionsById(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT m.user.id FROM MoodEntry m WHERE m.entryDate >= :since")
+    List<Long> findActiveUserIds(@Param("since") LocalDateTime since);
+
+    // Recent history for predicting a user's next check-in, newest first
+    @EntityGraph(attributePaths = { "emotions" })
+    @Query("SELECT m FROM MoodEntry m WHERE m.user.id = :userId AND m.entryDate >= :since ORDER BY m.entryDate DESC")
+    List<MoodEntry> findRecentWithEmotions(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    @EntityGraph(attributePaths = { "suggestedActivities", "suggestedActivities.template" })
+    @Query("SELECT m FROM MoodEntry m WHERE m.id = :id")
+    Optional<MoodEntry> findWithSuggestionsById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE MoodEntry m SET m.suggestionStatus = :status WHERE m.id = :id")
+    int updateSuggestionStatus(@Param("id") Long id, @Param("status") SuggestionStatus status);
+
+    // Served by the partial index on pending entries
+    @Query("SELECT m.id FROM MoodEntry m WHERE m.suggestionStatus = com.mentalapp.model.SuggestionStatus.PENDING "
+            + "AND m.updatedAt < :cutoff ORDER BY m.id")
+    List<Long> findStalePendingIds(@Param("cutoff") LocalDateTime cutoff, Pageable page);
+
+    /**
+     * Restarts a stale pending entry's clock. Only one caller sees 1 for a given entry, so
+     * instances recovering at the same time do not both regenerate it.
+     */
+    @Modifying
+    @Query("UPDATE MoodEntry m SET m.updatedAt = :now WHERE m.id = :id "
+            + "AND m.suggestionStatus = com.mentalapp.model.SuggestionStatus.PENDING AND m.updatedAt < :cutoff")
+    int claimStalePending(@Param("id") Long id, @Param("cutoff") LocalDateTime cutoff, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -12,9 +12,14 @@ import java.util.List;
 @Repository
 public interface SuggestedActivityRepository extends JpaRepository<SuggestedActivity, Long> {
 
-    @Query("SELECT sa FROM SuggestedActivity sa WHERE sa.moodEntry.user.id = :userId AND sa.moodEntry.entryDate >= :startOfDay AND sa.moodEntry.entryDate < :endOfDay")
+    @Query("SELECT sa FROM SuggestedActivity sa JOIN FETCH sa.template WHERE sa.moodEntry.user.id = :userId AND sa.moodEntry.entryDate >= :startOfDay AND sa.moodEntry.entryDate < :endOfDay")
     List<SuggestedActivity> findByUserIdAndDate(@Param("userId") Long userId, @Param("startOfDay") LocalDateTime startOfDay, @Param("endOfDay") LocalDateTime endOfDay);
 
-    @Query("SELECT sa FROM SuggestedActivity sa WHERE sa.moodEntry.user.id = :userId AND sa.activityType = :activityType")
+    @Query("SELECT sa FROM SuggestedActivity sa JOIN FETCH sa.template t WHERE sa.moodEntry.user.id = :userId AND t.activityType = :activityType")
     List<SuggestedActivity> findByUserIdAndType(@Param("userId") Long userId, @Param("activityType") String activityType);
+
+    // One row per activity type: type, suggested count, completed count
+    @Query("SELECT t.activityType, COUNT(sa), SUM(CASE WHEN sa.isCompleted = true THEN 1 ELSE 0 END) " +
+            "FROM SuggestedActivity sa JOIN sa.template t WHERE sa.moodEntry.user.id = :userId GROUP BY t.activityType")
+    List<Object[]> countCompletionsByType(@Param("userId") Long userId);
 }
\ No newline at end of file
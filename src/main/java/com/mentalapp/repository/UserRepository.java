@@ -1,6 +1,7 @@
 package com.mentalapp.repository;
 
 import com.mentalapp.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -13,6 +14,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByExternalId(String googleId);
     Optional<User> findByEmail(String email);
 
+    // For authentication: the principal's authorities come from its roles
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesByEmail(String email);
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesByUsername(String username);
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesById(Long id);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
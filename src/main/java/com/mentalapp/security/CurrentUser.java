@@ -0,0 +1,20 @@
+package com.mentalapp.security;
+
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a {@link com.mentalapp.model.User} controller parameter to the authenticated user,
+ * whether the request was authenticated with a user lookup or from token claims alone.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@AuthenticationPrincipal(expression = "@currentUserResolver.resolve(#this)")
+public @interface CurrentUser {
+}
@@ -0,0 +1,34 @@
+package com.mentalapp.security;
+
+import com.mentalapp.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns the authenticated principal into a {@link User} for {@link CurrentUser} parameters.
+ */
+@Component
+public class CurrentUserResolver {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * A {@link TokenPrincipal} becomes a reference to the user by id: reading the id is free,
+     * and any other field is loaded from the database on first access instead of reading
+     * null. The reference belongs to the request's persistence context (open-in-view), so it
+     * stays usable in the services the controller calls.
+     *
+     * @return the user, or null when the request is not authenticated
+     */
+    public User resolve(Object principal) {
+        if (principal instanceof User user) {
+            return user;
+        }
+        if (principal instanceof TokenPrincipal tokenPrincipal) {
+            return entityManager.getReference(User.class, tokenPrincipal.getId());
+        }
+        return null;
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -23,7 +24,9 @@ public class CustomUserDetailsService implements UserDetailsService {
         log.debug("Loading user by username: {}", usernameOrEmail);
 
         // Try to find user by email first, then by username if not found
-        User user = userRepository.findByEmail(usernameOrEmail)
+        // Access tokens carry the username as their subject, so the filter comes in by username
+        User user = userCache.getByLogin(usernameOrEmail, () -> userRepository.findWithRolesByEmail(usernameOrEmail)
+                        .or(() -> userRepository.findWithRolesByUsername(usernameOrEmail)))
                                   .orElseThrow(() -> {
                                       log.warn("User not found with username/email: {}", usernameOrEmail);
                                       return new UsernameNotFoundException("User not found: " + usernameOrEmail);
@@ -44,7 +47,7 @@ public class CustomUserDetailsService implements UserDetailsService {
     public UserDetails loadUserById(Long id) {
         log.debug("Loading user by ID: {}", id);
 
-        User user = userRepository.findById(id)
+        User user = userCache.getById(id, () -> userRepository.findWithRolesById(id))
                                   .orElseThrow(() -> {
                                       log.warn("User not found with id: {}", id);
                                       return new UsernameNotFoundException("User not found with id: " + id);
@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,6 +18,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
 
 @Component
 @RequiredArgsConstructor
@@ -25,6 +27,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService; // Use UserDetailsService instead of UserService
+    private final TokenRevocationService tokenRevocationService;
+
+    // Opt-in: build the principal from token claims instead of loading the user per request
+    @Value("${jwt.stateless-principal.enabled:false}")
+    private boolean statelessPrincipal;
 
     @Override
     protected void doFilterInternal(
@@ -36,19 +43,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = extractTokenFromRequest(request);
 
             if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                String username = jwtUtil.extractUsername(jwt);
-
-                if (username != null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                    if (jwtUtil.validateToken(jwt, userDetails)) {
-                        UsernamePasswordAuthenticationToken authToken =
-                                new UsernamePasswordAuthenticationToken(
-                                        userDetails,
-                                        null,
-                                        userDetails.getAuthorities()
-                                );
+                // Parse and verify once; everything below works off the verified claims
+                VerifiedToken token = jwtUtil.verifyToken(jwt);
+                String username = token.getSubject();
+
+                if (tokenRevocationService.isRevoked(token.getTokenId())) {
+                    log.debug("Rejected revoked JWT token for user: {}", username);
+                } else if (username != null) {
+                    UsernamePasswordAuthenticationToken authToken = statelessPrincipal
+                            ? authenticateFromClaims(token)
+                            : null;
+
+                    if (authToken == null) {
+                        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+
+                        if (jwtUtil.validateToken(token, userDetails)) {
+                            authToken = new UsernamePasswordAuthenticationToken(
+                                    userDetails,
+                                    null,
+                                    userDetails.getAuthorities()
+                            );
+                        }
+                    }
 
+                    if (authToken != null) {
                         authToken.setDetails(
                                 new WebAuthenticationDetailsSource().buildDetails(request)
                         );
@@ -68,6 +86,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Stateless mode: trusts the identity claims of a verified token and skips the user
+     * lookup. Returns null when the token predates identity claims so the caller falls back.
+     */
+    private UsernamePasswordAuthenticationToken authenticateFromClaims(VerifiedToken token) {
+        TokenPrincipal principal = jwtUtil.toPrincipal(token);
+        if (principal == null || token.isExpired(Instant.now())) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
     private String extractTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
 
@@ -1,24 +1,47 @@
 package com.mentalapp.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mentalapp.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 @Slf4j
 public class JwtUtil {
 
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_USERNAME = "username";
+    public static final String CLAIM_ROLES = "roles";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -28,40 +51,77 @@ public class JwtUtil {
     @Value("${jwt.issuer:mental-health-app}")
     private String issuer;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    // Key and parser are immutable and thread-safe, so they are built once and shared
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // Already-verified tokens keyed by SHA-256 digest, each entry living until the token expires
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return remainingNanos(token);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime,
+                            long currentDuration) {
+                        return remainingNanos(token);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    /**
+     * Parses and verifies a token exactly once. Repeated calls with the same token are
+     * served from the verified-token cache until the token expires.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verifyToken(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            if (!cached.isExpired(Instant.now())) {
+                return cached;
+            }
+            verifiedTokens.invalidate(digest);
+        }
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        VerifiedToken verified = parse(token);
+        verifiedTokens.put(digest, verified);
+        return verified;
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public String extractUsername(String token) {
+        return verifyToken(token).getSubject();
     }
 
-    private Claims extractAllClaims(String token) {
-        try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-        } catch (Exception e) {
-            log.error("Error extracting claims from JWT token: {}", e.getMessage());
-            throw e;
-        }
+    public Date extractExpiration(String token) {
+        return Date.from(verifyToken(token).getExpiresAt());
     }
 
     public Boolean isTokenExpired(String token) {
         try {
-            return extractExpiration(token).before(new Date());
+            return verifyToken(token).isExpired(Instant.now());
         } catch (Exception e) {
             log.warn("Error checking token expiration: {}", e.getMessage());
             return true;
@@ -70,35 +130,98 @@ public class JwtUtil {
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            // Identity claims let the filter build the principal without a database lookup
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_EMAIL, user.getEmail());
+            claims.put(CLAIM_USERNAME, user.getUsername());
+        }
+        claims.put(CLAIM_ROLES, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList()));
         return createToken(claims, userDetails.getUsername());
     }
 
-    // public String generateToken(com.mentalapp.model.User user) {
-    // Map<String, Object> claims = new HashMap<>();
-    // claims.put("email", user.getEmail());
-    // claims.put("username", user.getUsername());
-    // claims.put("userId", user.getId());
-    // return createToken(claims, user.getUsername());
-    // }
-
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .setId(UUID.randomUUID().toString())
                 .setIssuer(issuer)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + accessTokenExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            return validateToken(verifyToken(token), userDetails);
         } catch (Exception e) {
             log.warn("Error validating token for user {}: {}", userDetails.getUsername(), e.getMessage());
             return false;
         }
     }
+
+    public Boolean validateToken(VerifiedToken token, UserDetails userDetails) {
+        return token.getSubject() != null
+                && token.getSubject().equals(userDetails.getUsername())
+                && !token.isExpired(Instant.now());
+    }
+
+    /**
+     * Builds the principal from the identity claims of a verified token, or returns null for
+     * tokens issued without them.
+     */
+    public TokenPrincipal toPrincipal(VerifiedToken token) {
+        Number userId = token.getClaim(CLAIM_USER_ID, Number.class);
+        String email = token.getClaim(CLAIM_EMAIL, String.class);
+        if (userId == null || email == null) {
+            return null;
+        }
+        return new TokenPrincipal(userId.longValue(), email, token.getClaim(CLAIM_USERNAME, String.class),
+                extractAuthorities(token));
+    }
+
+    public List<GrantedAuthority> extractAuthorities(VerifiedToken token) {
+        List<?> roles = token.getClaim(CLAIM_ROLES, List.class);
+        if (roles == null) {
+            return Collections.emptyList();
+        }
+        return roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .collect(Collectors.toList());
+    }
+
+    private VerifiedToken parse(String token) {
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            return new VerifiedToken(
+                    claims.getSubject(),
+                    claims.getId(),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                    claims);
+        } catch (JwtException e) {
+            log.error("Error extracting claims from JWT token: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    private static long remainingNanos(VerifiedToken token) {
+        if (token.getExpiresAt() == null) {
+            return 0L;
+        }
+        return Math.max(0L, Duration.between(Instant.now(), token.getExpiresAt()).toNanos());
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
@@ -0,0 +1,156 @@
+package com.mentalapp.security;
+
+import com.mentalapp.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a dedicated, size-limited pool so a login storm
+ * cannot tie up every request thread. When the queue is full, callers are rejected with
+ * {@link ServiceBusyException} immediately instead of waiting.
+ */
+@Component
+@Slf4j
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final long retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejections;
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+            @Value("${password-hashing.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+            @Value("${password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${password-hashing.max-wait:5s}") Duration maxWait,
+            @Value("${password-hashing.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.maxWait = maxWait;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks currently running")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("password.hashing.rejected")
+                .description("Hashing requests rejected because the pool was saturated")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs the hashing task on the pool and waits for its result.
+     *
+     * @param operation metric tag, e.g. "encode" or "matches"
+     * @throws ServiceBusyException if the pool is saturated or the task does not finish in time
+     */
+    public <T> T execute(String operation, Supplier<T> task) {
+        Timer timer = timer(operation);
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.record(task));
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            log.warn("Password hashing pool saturated, rejecting {} request", operation);
+            throw new ServiceBusyException("Too many authentication requests, please retry shortly",
+                    retryAfterSeconds, e);
+        }
+
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejections.increment();
+            throw new ServiceBusyException("Authentication is taking too long, please retry shortly",
+                    retryAfterSeconds, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Runs a batch of hashing tasks in parallel for bulk jobs. Instead of rejecting, tasks that
+     * do not fit in the queue run on the calling thread, which throttles the producer.
+     */
+    public <T> List<T> executeAll(String operation, List<Supplier<T>> tasks) {
+        Timer timer = timer(operation);
+
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Supplier<T> task : tasks) {
+            try {
+                futures.add(executor.submit(() -> timer.record(task)));
+            } catch (RejectedExecutionException e) {
+                futures.add(CompletableFuture.completedFuture(timer.record(task)));
+            }
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+        return results;
+    }
+
+    private Timer timer(String operation) {
+        return Timer.builder("password.hashing.duration")
+                .description("Time spent hashing or verifying a password, excluding queueing")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
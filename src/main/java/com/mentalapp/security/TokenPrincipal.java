@@ -0,0 +1,37 @@
+package com.mentalapp.security;
+
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal of a request authenticated from token claims alone, in stateless mode. It holds
+ * exactly what the access token carries and nothing else; controllers that need the user
+ * entity take a {@link CurrentUser} parameter, which resolves it by id.
+ */
+@Value
+public class TokenPrincipal implements UserDetails {
+
+    Long id;
+    String email;
+    String username;
+    List<GrantedAuthority> authorities;
+
+    public TokenPrincipal(Long id, String email, String username, Collection<? extends GrantedAuthority> authorities) {
+        this.id = id;
+        this.email = email;
+        this.username = username;
+        this.authorities = List.copyOf(authorities);
+    }
+
+    /**
+     * Tokens carry no credentials.
+     */
+    @Override
+    public String getPassword() {
+        return null;
+    }
+}
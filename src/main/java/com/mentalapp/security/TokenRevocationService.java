@@ -0,0 +1,172 @@
+package com.mentalapp.security;
+
+import com.mentalapp.util.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory revocation list for access tokens, keyed by token id (jti).
+ *
+ * <p>Lookups go through a Bloom filter first, so the common case of a token that was never
+ * revoked is answered without touching the exact set. Revoked ids are held only until the
+ * token itself expires: a hashed timing wheel drops them, and the Bloom filter is rebuilt
+ * from the survivors once enough entries have gone.
+ */
+@Component
+@Slf4j
+public class TokenRevocationService {
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.revocation.expected-revocations:100000}")
+    private int expectedRevocations;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${jwt.revocation.tick:1s}")
+    private Duration tick;
+
+    @Value("${jwt.revocation.wheel-slots:1024}")
+    private int wheelSlots;
+
+    private volatile BloomFilter filter;
+    private Queue<String>[] wheel;
+    private long tickMillis;
+    private long lastSweptTick;
+    private int removedSinceRebuild;
+    private ScheduledExecutorService sweeper;
+
+    public TokenRevocationService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    void start() {
+        filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        wheel = new Queue[wheelSlots];
+        for (int i = 0; i < wheelSlots; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        tickMillis = Math.max(1L, tick.toMillis());
+        lastSweptTick = System.currentTimeMillis() / tickMillis - 1;
+
+        Gauge.builder("jwt.revoked.tokens", revoked, Map::size)
+                .description("Revoked access tokens that have not expired yet")
+                .register(meterRegistry);
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleAtFixedRate(this::sweep, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Revokes a token id until the given expiry. Tokens that have already expired are ignored
+     * because signature verification rejects them anyway.
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null) {
+            return;
+        }
+        long expiry = expiresAt.toEpochMilli();
+        if (expiry <= System.currentTimeMillis()) {
+            return;
+        }
+
+        synchronized (writeLock) {
+            revoked.merge(tokenId, expiry, Math::max);
+            filter.put(tokenId);
+        }
+        wheel[slotFor(expiry / tickMillis)].add(tokenId);
+        log.debug("Revoked token {} until {}", tokenId, expiresAt);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        return filter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    // Runs on the sweeper thread only
+    void sweep() {
+        try {
+            long now = System.currentTimeMillis();
+            long currentTick = now / tickMillis;
+            // Only whole ticks in the past are swept, so every id due in them has expired
+            long from = Math.max(lastSweptTick + 1, currentTick - wheelSlots);
+            for (long t = from; t < currentTick; t++) {
+                sweepSlot(wheel[slotFor(t)], now);
+            }
+            lastSweptTick = currentTick - 1;
+
+            if (removedSinceRebuild > 0 && removedSinceRebuild >= Math.max(1024, revoked.size())) {
+                rebuildFilter();
+            }
+        } catch (Exception e) {
+            log.error("Token revocation sweep failed", e);
+        }
+    }
+
+    private void sweepSlot(Queue<String> slot, long now) {
+        List<String> notYetDue = new ArrayList<>();
+        String tokenId;
+        while ((tokenId = slot.poll()) != null) {
+            Long expiry = revoked.get(tokenId);
+            if (expiry == null) {
+                continue;
+            }
+            if (expiry <= now) {
+                if (revoked.remove(tokenId, expiry)) {
+                    removedSinceRebuild++;
+                }
+            } else {
+                // Due in a later revolution of the wheel
+                notYetDue.add(tokenId);
+            }
+        }
+        slot.addAll(notYetDue);
+    }
+
+    private void rebuildFilter() {
+        synchronized (writeLock) {
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revoked.size() * 2), falsePositiveRate);
+            revoked.keySet().forEach(rebuilt::put);
+            filter = rebuilt;
+        }
+        log.debug("Rebuilt token revocation filter after removing {} expired ids", removedSinceRebuild);
+        removedSinceRebuild = 0;
+    }
+
+    private int slotFor(long tickIndex) {
+        return (int) Math.floorMod(tickIndex, (long) wheelSlots);
+    }
+}
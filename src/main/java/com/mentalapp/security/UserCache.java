@@ -0,0 +1,162 @@
+package com.mentalapp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.mentalapp.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of user principals in front of the users table, looked up by the email or
+ * username given at login or carried by a JWT, and by id. Entries are evicted whenever a user
+ * is saved.
+ *
+ * <p>The cache holds immutable copies of the user's fields and every lookup returns a new
+ * {@link User} built from them, so a request that changes its principal cannot affect another
+ * request.
+ */
+@Component
+@Slf4j
+public class UserCache {
+
+    private final Cache<String, CachedUser> byLogin;
+    private final Cache<Long, CachedUser> byId;
+    // Login keys cached per user id, so a user's entries are found without scanning the cache
+    private final ConcurrentMap<Long, Set<String>> loginsById = new ConcurrentHashMap<>();
+
+    public UserCache(MeterRegistry meterRegistry,
+            @Value("${user-cache.max-size:10000}") long maxSize,
+            @Value("${user-cache.ttl:10m}") Duration ttl) {
+        this.byLogin = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .evictionListener((String login, CachedUser user, RemovalCause cause) -> forgetLogin(login, user))
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byLogin, "users.by-login");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.by-id");
+    }
+
+    public Optional<User> getByLogin(String emailOrUsername, Supplier<Optional<User>> loader) {
+        CachedUser cached = byLogin.getIfPresent(emailOrUsername);
+        if (cached != null) {
+            return Optional.of(cached.toUser());
+        }
+        Optional<User> loaded = loader.get();
+        loaded.ifPresent(user -> {
+            if (user.getId() != null) {
+                loginsById.computeIfAbsent(user.getId(), id -> ConcurrentHashMap.newKeySet()).add(emailOrUsername);
+            }
+            byLogin.put(emailOrUsername, CachedUser.of(user));
+        });
+        return loaded.map(user -> CachedUser.of(user).toUser());
+    }
+
+    public Optional<User> getById(Long id, Supplier<Optional<User>> loader) {
+        return get(byId, id, loader);
+    }
+
+    /**
+     * Evicts the user now and again once the surrounding transaction commits, so a
+     * concurrent reader cannot re-populate the cache with the pre-commit row.
+     */
+    public void evict(User user) {
+        if (user == null) {
+            return;
+        }
+        evictNow(user);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(user);
+                }
+            });
+        }
+    }
+
+    private void evictNow(User user) {
+        if (user.getEmail() != null) {
+            byLogin.invalidate(user.getEmail());
+        }
+        if (user.getUsername() != null) {
+            byLogin.invalidate(user.getUsername());
+        }
+        if (user.getId() != null) {
+            byId.invalidate(user.getId());
+            // The email or username may have changed, so drop every key cached for this id
+            Set<String> logins = loginsById.remove(user.getId());
+            if (logins != null) {
+                byLogin.invalidateAll(logins);
+            }
+        }
+        log.debug("Evicted cached principal for user id: {}", user.getId());
+    }
+
+    // Entries dropped for size or age no longer need their key tracked
+    private void forgetLogin(String login, CachedUser user) {
+        if (user != null && user.id() != null) {
+            loginsById.computeIfPresent(user.id(), (id, logins) -> {
+                logins.remove(login);
+                return logins.isEmpty() ? null : logins;
+            });
+        }
+    }
+
+    private static <K> Optional<User> get(Cache<K, CachedUser> cache, K key, Supplier<Optional<User>> loader) {
+        CachedUser cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached.toUser());
+        }
+        // Misses are not cached so a user registered a moment later is found right away
+        Optional<User> loaded = loader.get();
+        loaded.ifPresent(user -> cache.put(key, CachedUser.of(user)));
+        return loaded.map(user -> CachedUser.of(user).toUser());
+    }
+
+    /**
+     * Field values of a user as loaded, roles included, detached from the persistence context
+     * that loaded them.
+     */
+    private record CachedUser(Long id, String email, String username, String passwordHash,
+            String profilePictureUrl, String externalId, String authProvider, Set<String> roles) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getEmail(), user.getUsername(), user.getPasswordHash(),
+                    user.getProfilePictureUrl(), user.getExternalId(), user.getAuthProvider(),
+                    user.getRoles() == null ? Set.of() : Set.copyOf(user.getRoles()));
+        }
+
+        User toUser() {
+            User user = new User();
+            user.setId(id);
+            user.setEmail(email);
+            user.setUsername(username);
+            user.setPasswordHash(passwordHash);
+            user.setProfilePictureUrl(profilePictureUrl);
+            user.setExternalId(externalId);
+            user.setAuthProvider(authProvider);
+            user.setRoles(new HashSet<>(roles));
+            return user;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.mentalapp.security;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of a JWT whose signature has already been checked.
+ * Produced once per token by {@link JwtUtil#verifyToken(String)} so callers never re-parse.
+ */
+@Value
+public class VerifiedToken {
+
+    String subject;
+    String tokenId;
+    Instant issuedAt;
+    Instant expiresAt;
+    Map<String, Object> claims;
+
+    public VerifiedToken(String subject, String tokenId, Instant issuedAt, Instant expiresAt,
+            Map<String, Object> claims) {
+        this.subject = subject;
+        this.tokenId = tokenId;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+        this.claims = Collections.unmodifiableMap(new HashMap<>(claims));
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+
+    public <T> T getClaim(String name, Class<T> type) {
+        Object value = claims.get(name);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.mentalapp.service;
 
+import com.mentalapp.ai.ActivitySuggestion;
 import com.mentalapp.model.MoodEntry;
 import com.mentalapp.model.SuggestedActivity;
 
@@ -15,5 +16,14 @@ public interface AIActivitySuggestionService {
      * @return list of generated and saved suggested activities
      */
     List<SuggestedActivity> generateSuggestions(MoodEntry moodEntry);
+
+    /**
+     * Asks Gemini for suggestions for a mood entry, without caching, fallbacks or saving
+     *
+     * @param moodEntry the mood entry to build the prompt from; need not be persisted
+     * @return the parsed suggestions
+     * @throws RuntimeException if the call fails or the answer cannot be parsed
+     */
+    List<ActivitySuggestion> requestSuggestions(MoodEntry moodEntry);
 }
 
@@ -0,0 +1,190 @@
+package com.mentalapp.service;
+
+import com.mentalapp.model.Emotion;
+import com.mentalapp.repository.EmotionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory copy of the emotion taxonomy, so mapping a mood entry's emotions takes no
+ * queries. The taxonomy is loaded at startup into an immutable snapshot with id-indexed and
+ * key-indexed lookups and precomputed parent and root links. A new snapshot is swapped in
+ * whenever an emotion is created or deleted, once that transaction has committed, and on a
+ * fixed delay to pick up changes made by other instances.
+ *
+ * <p>Emotions handed out are detached copies shared between threads and must not be modified.
+ * Their parent links point at other copies; their children are not loaded.
+ */
+@Component
+@Slf4j
+public class EmotionRegistry {
+
+    private final EmotionRepository emotionRepository;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate afterCommitTransaction;
+
+    private volatile Snapshot snapshot;
+
+    public EmotionRegistry(EmotionRepository emotionRepository, PlatformTransactionManager transactionManager) {
+        this.emotionRepository = emotionRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        // The committed transaction is still bound during afterCommit and cannot be joined
+        this.afterCommitTransaction = new TransactionTemplate(transactionManager);
+        this.afterCommitTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.afterCommitTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${emotions.registry.refresh-interval:10m}",
+            fixedDelayString = "${emotions.registry.refresh-interval:10m}")
+    public void reload() {
+        load(readTransaction);
+    }
+
+    private void load(TransactionTemplate transaction) {
+        Snapshot loaded = transaction.execute(status -> Snapshot.of(emotionRepository.findAllWithParent()));
+        snapshot = loaded;
+        log.debug("Loaded {} emotions into the registry", loaded.size());
+    }
+
+    /**
+     * Reloads once the current transaction commits, or right away if there is none.
+     */
+    public void reloadAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    load(afterCommitTransaction);
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    /**
+     * @return the emotion with this id, or null if there is none
+     */
+    public Emotion get(Long id) {
+        return current().get(id);
+    }
+
+    public Emotion getByKey(String key) {
+        return current().byKey.get(key);
+    }
+
+    /**
+     * @return the top of the taxonomy above this emotion, which is the emotion itself for a root
+     */
+    public Emotion rootOf(Long id) {
+        Snapshot current = current();
+        int index = current.indexOf(id);
+        return index < 0 ? null : current.roots[index];
+    }
+
+    /**
+     * @return the emotions for the given ids in request order, without duplicates; unknown ids
+     *         are skipped
+     */
+    public List<Emotion> resolve(Collection<Long> ids) {
+        Snapshot current = current();
+        Set<Emotion> resolved = new LinkedHashSet<>();
+        for (Long id : ids) {
+            Emotion emotion = current.get(id);
+            if (emotion != null) {
+                resolved.add(emotion);
+            }
+        }
+        return new ArrayList<>(resolved);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Used before the application was ready
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * Ids are small and dense (identity column over a seeded taxonomy), so they index arrays
+     * directly.
+     */
+    private static final class Snapshot {
+
+        private final Emotion[] byId;
+        private final Emotion[] roots;
+        private final Map<String, Emotion> byKey;
+
+        private Snapshot(Emotion[] byId, Emotion[] roots, Map<String, Emotion> byKey) {
+            this.byId = byId;
+            this.roots = roots;
+            this.byKey = byKey;
+        }
+
+        static Snapshot of(List<Emotion> emotions) {
+            int maxId = emotions.stream().mapToInt(emotion -> Math.toIntExact(emotion.getId())).max().orElse(-1);
+            Emotion[] byId = new Emotion[maxId + 1];
+            Map<String, Emotion> byKey = new HashMap<>();
+            for (Emotion emotion : emotions) {
+                Emotion copy = new Emotion();
+                copy.setId(emotion.getId());
+                copy.setKey(emotion.getKey());
+                copy.setLabel(emotion.getLabel());
+                copy.setCreatedAt(emotion.getCreatedAt());
+                copy.setUpdatedAt(emotion.getUpdatedAt());
+                byId[emotion.getId().intValue()] = copy;
+                byKey.put(copy.getKey(), copy);
+            }
+            for (Emotion emotion : emotions) {
+                if (emotion.getParent() != null) {
+                    byId[emotion.getId().intValue()].setParent(byKey.get(emotion.getParent().getKey()));
+                }
+            }
+
+            Emotion[] roots = new Emotion[byId.length];
+            for (int i = 0; i < byId.length; i++) {
+                Emotion root = byId[i];
+                // Bounded in case of a cycle in the data
+                for (int depth = 0; root != null && root.getParent() != null && depth < byId.length; depth++) {
+                    root = root.getParent();
+                }
+                roots[i] = root;
+            }
+            return new Snapshot(byId, roots, Map.copyOf(byKey));
+        }
+
+        int size() {
+            return byKey.size();
+        }
+
+        int indexOf(Long id) {
+            return id == null || id < 0 || id >= byId.length || byId[id.intValue()] == null ? -1 : id.intValue();
+        }
+
+        Emotion get(Long id) {
+            int index = indexOf(id);
+            return index < 0 ? null : byId[index];
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.mentalapp.dto.MoodEntryCreateRequest;
 import com.mentalapp.dto.MoodEntryResponse;
 import com.mentalapp.dto.MoodEntryUpdateRequest;
 import com.mentalapp.dto.DailyMoodSummaryDto;
+import com.mentalapp.dto.SuggestionStatusResponse;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -23,6 +24,9 @@ public interface MoodEntryService {
 
     void deleteMoodEntry(Long id, User user);
 
+    // Suggestions are generated in the background after create
+    SuggestionStatusResponse getSuggestionStatus(Long id, User user);
+
     // Daily dashboard and history
     MoodEntryResponse getTodaysMoodEntry(User user);
 
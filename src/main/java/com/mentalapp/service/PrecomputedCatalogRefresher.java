@@ -0,0 +1,96 @@
+package com.mentalapp.service;
+
+import com.mentalapp.ai.PrecomputedCatalog;
+import com.mentalapp.exception.GeminiUnavailableException;
+import com.mentalapp.model.Emotion;
+import com.mentalapp.model.MoodEntry;
+import com.mentalapp.repository.EmotionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Periodically asks Gemini for suggestions for every cell of the {@link PrecomputedCatalog}.
+ * Cells are refreshed one at a time so the job never takes more than one slot of the
+ * Gemini bulkhead; a failed cell keeps its previous answer, and the run stops early when
+ * the circuit breaker is open.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrecomputedCatalogRefresher {
+
+    private static final int MIN_ENERGY = 1;
+    private static final int MAX_ENERGY = 5;
+    private static final int SUGGESTIONS_PER_CELL = 3;
+
+    private final PrecomputedCatalog precomputedCatalog;
+    private final AIActivitySuggestionService aiActivitySuggestionService;
+    private final EmotionRepository emotionRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(initialDelayString = "${suggestions.precomputed.initial-delay:1m}",
+            fixedDelayString = "${suggestions.precomputed.refresh-interval:24h}")
+    public void refresh() {
+        if (!precomputedCatalog.isEnabled()) {
+            return;
+        }
+
+        List<Emotion> roots = emotionRepository.findRootEmotions();
+        int refreshed = 0;
+        int failed = 0;
+        log.info("Refreshing precomputed suggestions for {} root emotions", roots.size());
+        try {
+            for (Emotion root : roots) {
+                for (int energy = MIN_ENERGY; energy <= MAX_ENERGY; energy++) {
+                    for (String environment : precomputedCatalog.environmentBuckets()) {
+                        if (refreshCell(root, energy, environment)) {
+                            refreshed++;
+                        } else {
+                            failed++;
+                        }
+                    }
+                }
+            }
+        } catch (GeminiUnavailableException e) {
+            log.warn("Stopped precomputed suggestion refresh, Gemini unavailable ({})", e.getReason());
+            meterRegistry.counter("suggestions.precomputed.refresh", "outcome", "aborted").increment();
+        }
+        log.info("Refreshed {} precomputed suggestion cells, {} failed", refreshed, failed);
+    }
+
+    private boolean refreshCell(Emotion root, int energy, String environment) {
+        try {
+            boolean stored = precomputedCatalog.put(root.getKey(), energy, environment,
+                    aiActivitySuggestionService.requestSuggestions(stateEntry(root, energy, environment)),
+                    SUGGESTIONS_PER_CELL);
+            meterRegistry.counter("suggestions.precomputed.refresh", "outcome", stored ? "stored" : "rejected")
+                    .increment();
+            return stored;
+        } catch (GeminiUnavailableException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.debug("Could not refresh precomputed cell {}/{}/{}", root.getKey(), energy, environment, e);
+            meterRegistry.counter("suggestions.precomputed.refresh", "outcome", "error").increment();
+            return false;
+        }
+    }
+
+    // Transient entry describing only the cell, so the prompt carries nothing personal
+    private static MoodEntry stateEntry(Emotion root, int energy, String environment) {
+        MoodEntry moodEntry = new MoodEntry();
+        moodEntry.setEntryDate(LocalDateTime.now());
+        moodEntry.setEnergyLevel(energy);
+        moodEntry.setEmotions(Set.of(root));
+        if (!PrecomputedCatalog.ANY_ENVIRONMENT.equals(environment)) {
+            moodEntry.setComfortEnvironment(environment);
+        }
+        return moodEntry;
+    }
+}
@@ -0,0 +1,38 @@
+package com.mentalapp.service;
+
+import com.mentalapp.model.User;
+import lombok.Value;
+
+public interface RefreshTokenService {
+
+    /**
+     * Starts a new token family for a fresh login
+     *
+     * @param user the authenticated user
+     * @return the opaque refresh token to hand to the client
+     */
+    String issue(User user);
+
+    /**
+     * Exchanges a refresh token for its successor in the same family. Presenting a token that
+     * was already rotated or revoked is treated as theft and revokes the whole family.
+     *
+     * @param rawToken the refresh token presented by the client
+     * @return the owning user together with the new refresh token
+     */
+    Rotation rotate(String rawToken);
+
+    void revoke(String rawToken);
+
+    /**
+     * Deletes tokens that have expired, and revoked tokens old enough that presenting them no
+     * longer needs to be recognised as reuse
+     */
+    void purgeExpired();
+
+    @Value
+    class Rotation {
+        User user;
+        String refreshToken;
+    }
+}
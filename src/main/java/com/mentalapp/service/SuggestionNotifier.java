@@ -0,0 +1,93 @@
+package com.mentalapp.service;
+
+import com.mentalapp.dto.MoodEntryResponse;
+import com.mentalapp.dto.SuggestionStatusResponse;
+import com.mentalapp.model.SuggestionStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Server-Sent Events subscriptions for clients waiting on a mood entry's suggestions.
+ * Subscribers may receive an {@code activity} event per activity while suggestions are
+ * streamed, then a single {@code suggestions} event after which the stream is closed.
+ */
+@Component
+@Slf4j
+public class SuggestionNotifier {
+
+    private static final String EVENT_NAME = "suggestions";
+    private static final String ACTIVITY_EVENT_NAME = "activity";
+
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    @Value("${suggestions.stream-timeout:60s}")
+    private Duration streamTimeout;
+
+    /**
+     * Registers a subscriber, then checks the current state so a result published just
+     * before registration is still delivered.
+     */
+    public SseEmitter subscribe(Long moodEntryId, Supplier<SuggestionStatusResponse> currentState) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        subscribers.computeIfAbsent(moodEntryId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+
+        Runnable unsubscribe = () -> subscribers.computeIfPresent(moodEntryId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+
+        SuggestionStatusResponse state = currentState.get();
+        if (state != null && !SuggestionStatus.PENDING.name().equals(state.getStatus())) {
+            send(emitter, state);
+        }
+        return emitter;
+    }
+
+    public void publish(Long moodEntryId, SuggestionStatusResponse state) {
+        List<SseEmitter> emitters = subscribers.remove(moodEntryId);
+        if (emitters == null) {
+            return;
+        }
+        log.debug("Notifying {} subscribers that suggestions for mood entry {} are {}",
+                emitters.size(), moodEntryId, state.getStatus());
+        emitters.forEach(emitter -> send(emitter, state));
+    }
+
+    // Pushes one activity as soon as it is saved; the final event still follows
+    public void publishActivity(Long moodEntryId, MoodEntryResponse.SuggestedActivityResponse activity) {
+        List<SseEmitter> emitters = subscribers.get(moodEntryId);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name(ACTIVITY_EVENT_NAME).data(activity));
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void send(SseEmitter emitter, SuggestionStatusResponse state) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(state));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter was already completed
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.mentalapp.service;
+
+import com.mentalapp.event.MoodEntryCreatedEvent;
+import com.mentalapp.mapper.MoodEntryMapper;
+import com.mentalapp.model.MoodEntry;
+import com.mentalapp.model.SuggestionStatus;
+import com.mentalapp.repository.MoodEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Generates suggestions for new mood entries in the background. Work starts only after the
+ * creating transaction commits, and no transaction or connection is held while the LLM is
+ * called; the entry's status is flipped in a short transaction once activities are saved.
+ *
+ * <p>Queued work lives only in memory, so entries whose work was lost to a restart or crash
+ * would stay pending. A scheduled pass picks up entries pending for longer than
+ * {@code stale-after} and sends them through the pipeline again.
+ */
+@Component
+@Slf4j
+public class SuggestionPipeline {
+
+    private final MoodEntryRepository moodEntryRepository;
+    private final AIActivitySuggestionService aiActivitySuggestionService;
+    private final MoodEntryMapper moodEntryMapper;
+    private final SuggestionNotifier suggestionNotifier;
+    private final Executor suggestionExecutor;
+    private final TransactionTemplate statusTransaction;
+    private final Duration staleAfter;
+    private final int recoveryBatchSize;
+    // Entries queued or running on this instance, which recovery leaves alone
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public SuggestionPipeline(MoodEntryRepository moodEntryRepository,
+            AIActivitySuggestionService aiActivitySuggestionService,
+            MoodEntryMapper moodEntryMapper,
+            SuggestionNotifier suggestionNotifier,
+            @Qualifier("suggestionExecutor") Executor suggestionExecutor,
+            PlatformTransactionManager transactionManager,
+            @Value("${suggestions.async.recovery.stale-after:15m}") Duration staleAfter,
+            @Value("${suggestions.async.recovery.batch-size:100}") int recoveryBatchSize) {
+        this.moodEntryRepository = moodEntryRepository;
+        this.aiActivitySuggestionService = aiActivitySuggestionService;
+        this.moodEntryMapper = moodEntryMapper;
+        this.suggestionNotifier = suggestionNotifier;
+        this.suggestionExecutor = suggestionExecutor;
+        // Also used from after-commit callbacks, where the finished transaction is still bound
+        this.statusTransaction = new TransactionTemplate(transactionManager);
+        this.statusTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.staleAfter = staleAfter;
+        this.recoveryBatchSize = recoveryBatchSize;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMoodEntryCreated(MoodEntryCreatedEvent event) {
+        Long moodEntryId = event.getMoodEntryId();
+        if (!submit(moodEntryId)) {
+            log.warn("Suggestion queue full, not generating suggestions for mood entry: {}", moodEntryId);
+            complete(moodEntryId, SuggestionStatus.FAILED);
+        }
+    }
+
+    /**
+     * Sends entries left pending past {@code stale-after} back through the pipeline, oldest
+     * first. Entries whose activities were saved before the status was lost are only marked
+     * ready.
+     */
+    @Scheduled(initialDelayString = "${suggestions.async.recovery.interval:5m}",
+            fixedDelayString = "${suggestions.async.recovery.interval:5m}")
+    public void recoverStalePending() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(staleAfter);
+        int recovered = 0;
+        for (Long moodEntryId : moodEntryRepository.findStalePendingIds(cutoff, PageRequest.of(0, recoveryBatchSize))) {
+            if (inFlight.contains(moodEntryId) || !claim(moodEntryId, cutoff)) {
+                continue;
+            }
+            boolean hasActivities = moodEntryRepository.findWithSuggestionsById(moodEntryId)
+                    .map(entry -> !entry.getSuggestedActivities().isEmpty())
+                    .orElse(false);
+            if (hasActivities) {
+                complete(moodEntryId, SuggestionStatus.READY);
+            } else if (!submit(moodEntryId)) {
+                // Still pending with a fresh clock, so a later pass tries again
+                log.warn("Suggestion queue full, deferring recovery of pending mood entries");
+                break;
+            }
+            recovered++;
+        }
+        if (recovered > 0) {
+            log.info("Recovered {} mood entries left with pending suggestions", recovered);
+        }
+    }
+
+    private boolean claim(Long moodEntryId, LocalDateTime cutoff) {
+        Integer claimed = statusTransaction.execute(tx ->
+                moodEntryRepository.claimStalePending(moodEntryId, cutoff, LocalDateTime.now()));
+        return claimed != null && claimed > 0;
+    }
+
+    private boolean submit(Long moodEntryId) {
+        if (!inFlight.add(moodEntryId)) {
+            return true;
+        }
+        try {
+            suggestionExecutor.execute(() -> {
+                try {
+                    generate(moodEntryId);
+                } finally {
+                    inFlight.remove(moodEntryId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(moodEntryId);
+            return false;
+        }
+    }
+
+    void generate(Long moodEntryId) {
+        Optional<MoodEntry> moodEntry = moodEntryRepository.findWithEmotionsById(moodEntryId);
+        if (moodEntry.isEmpty()) {
+            log.debug("Mood entry {} was deleted before suggestions were generated", moodEntryId);
+            return;
+        }
+        if (moodEntry.get().getSuggestionStatus() != SuggestionStatus.PENDING) {
+            log.debug("Suggestions for mood entry {} were already completed", moodEntryId);
+            return;
+        }
+
+        SuggestionStatus status;
+        try {
+            int count = aiActivitySuggestionService.generateSuggestions(moodEntry.get()).size();
+            log.info("Generated {} AI suggestions for mood entry: {}", count, moodEntryId);
+            status = SuggestionStatus.READY;
+        } catch (Exception e) {
+            log.error("Failed to generate AI suggestions for mood entry: {}", moodEntryId, e);
+            status = SuggestionStatus.FAILED;
+        }
+        complete(moodEntryId, status);
+    }
+
+    private void complete(Long moodEntryId, SuggestionStatus status) {
+        try {
+            statusTransaction.executeWithoutResult(tx -> moodEntryRepository.updateSuggestionStatus(moodEntryId, status));
+            moodEntryRepository.findWithSuggestionsById(moodEntryId)
+                    .map(moodEntryMapper::toSuggestionStatusResponse)
+                    .ifPresent(state -> suggestionNotifier.publish(moodEntryId, state));
+        } catch (Exception e) {
+            log.error("Failed to record suggestion status {} for mood entry: {}", status, moodEntryId, e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.mentalapp.service;
+
+import com.mentalapp.ai.ActivitySuggestion;
+import com.mentalapp.ai.PregeneratedSuggestions;
+import com.mentalapp.ai.SuggestionFingerprint;
+import com.mentalapp.exception.GeminiUnavailableException;
+import com.mentalapp.model.MoodEntry;
+import com.mentalapp.repository.MoodEntryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Overnight job that prepares suggestions ahead of the morning check-in peak. For every user
+ * with recent entries it predicts the next check-in as the state they report most often,
+ * weighted towards recent entries, asks Gemini for it and stores the ranked answer in
+ * {@link PregeneratedSuggestions}. At most {@code concurrency} users are in flight at once,
+ * and the run stops when Gemini becomes unavailable.
+ */
+@Component
+@Slf4j
+public class SuggestionPregenerationJob {
+
+    private static final int SUGGESTIONS_PER_SET = 3;
+
+    private final PregeneratedSuggestions pregeneratedSuggestions;
+    private final AIActivitySuggestionService aiActivitySuggestionService;
+    private final MoodEntryRepository moodEntryRepository;
+    private final MeterRegistry meterRegistry;
+    private final int concurrency;
+    private final Duration history;
+    private final Duration halfLife;
+
+    public SuggestionPregenerationJob(PregeneratedSuggestions pregeneratedSuggestions,
+            AIActivitySuggestionService aiActivitySuggestionService,
+            MoodEntryRepository moodEntryRepository,
+            MeterRegistry meterRegistry,
+            @Value("${suggestions.pregenerated.concurrency:2}") int concurrency,
+            @Value("${suggestions.pregenerated.history:14d}") Duration history,
+            @Value("${suggestions.pregenerated.half-life:3d}") Duration halfLife) {
+        this.pregeneratedSuggestions = pregeneratedSuggestions;
+        this.aiActivitySuggestionService = aiActivitySuggestionService;
+        this.moodEntryRepository = moodEntryRepository;
+        this.meterRegistry = meterRegistry;
+        this.concurrency = Math.max(1, concurrency);
+        this.history = history;
+        this.halfLife = halfLife;
+    }
+
+    @Scheduled(cron = "${suggestions.pregenerated.cron:0 0 4 * * *}")
+    public void run() {
+        if (!pregeneratedSuggestions.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime since = LocalDateTime.now().minus(history);
+        List<Long> userIds = moodEntryRepository.findActiveUserIds(since);
+        log.info("Pre-generating suggestions for {} active users", userIds.size());
+
+        AtomicInteger covered = new AtomicInteger();
+        AtomicBoolean aborted = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "suggestion-pregeneration");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> tasks = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                tasks.add(executor.submit(() -> {
+                    if (!aborted.get() && pregenerate(userId, since, aborted)) {
+                        covered.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Suggestion pre-generation run failed", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        pregeneratedSuggestions.completeRun(userIds.size(), covered.get());
+    }
+
+    private boolean pregenerate(Long userId, LocalDateTime since, AtomicBoolean aborted) {
+        try {
+            MoodEntry predicted = predictNextEntry(moodEntryRepository.findRecentWithEmotions(userId, since));
+            if (predicted == null) {
+                return false;
+            }
+            List<ActivitySuggestion> ranked = aiActivitySuggestionService.requestSuggestions(predicted).stream()
+                    .sorted(Comparator.comparing(ActivitySuggestion::getPriority)
+                            .thenComparing(ActivitySuggestion::getDifficulty))
+                    .limit(SUGGESTIONS_PER_SET)
+                    .collect(Collectors.toList());
+            if (ranked.size() < SUGGESTIONS_PER_SET) {
+                count("rejected");
+                return false;
+            }
+            pregeneratedSuggestions.put(userId, predicted, ranked);
+            count("stored");
+            return true;
+        } catch (GeminiUnavailableException e) {
+            if (aborted.compareAndSet(false, true)) {
+                log.warn("Stopped suggestion pre-generation, Gemini unavailable ({})", e.getReason());
+                count("aborted");
+            }
+            return false;
+        } catch (RuntimeException e) {
+            log.debug("Could not pre-generate suggestions for user {}", userId, e);
+            count("error");
+            return false;
+        }
+    }
+
+    /**
+     * The state the user reports most often, each entry weighted by {@code 2^(-age / half-life)},
+     * as a transient entry for later today at the time of day they last reported it. The
+     * description and location are left out: they are not part of the match, and entries that
+     * have them are not served a pre-generated set.
+     */
+    MoodEntry predictNextEntry(List<MoodEntry> recentEntries) {
+        if (recentEntries.isEmpty()) {
+            return null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        double halfLifeHours = Math.max(1, halfLife.toHours());
+        Map<SuggestionFingerprint, Double> weights = new HashMap<>();
+        // Newest first, so the first entry seen for a state is its latest report
+        Map<SuggestionFingerprint, MoodEntry> latest = new HashMap<>();
+        for (MoodEntry entry : recentEntries) {
+            SuggestionFingerprint fingerprint = PregeneratedSuggestions.fingerprint(entry);
+            double ageHours = Math.max(0, Duration.between(entry.getEntryDate(), now).toHours());
+            weights.merge(fingerprint, Math.pow(2, -ageHours / halfLifeHours), Double::sum);
+            latest.putIfAbsent(fingerprint, entry);
+        }
+        MoodEntry template = latest.get(weights.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElseThrow()
+                .getKey());
+
+        MoodEntry predicted = new MoodEntry();
+        predicted.setUser(template.getUser());
+        predicted.setEntryDate(LocalDate.now().atTime(template.getEntryDate().toLocalTime()));
+        predicted.setComfortEnvironment(template.getComfortEnvironment());
+        predicted.setEnergyLevel(template.getEnergyLevel());
+        predicted.setPassion(template.getPassion());
+        predicted.setEmotions(new HashSet<>(template.getEmotions()));
+        return predicted;
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("suggestions.pregenerated.generate", "outcome", outcome).increment();
+    }
+}
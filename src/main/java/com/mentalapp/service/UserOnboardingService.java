@@ -0,0 +1,18 @@
+package com.mentalapp.service;
+
+import com.mentalapp.dto.BulkRegistrationResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface UserOnboardingService {
+
+    /**
+     * Registers users from a CSV stream with the columns username,email,password. Rows are
+     * streamed, hashed in parallel and inserted in JDBC batches; existing users are skipped.
+     *
+     * @param csv the uploaded file contents
+     * @return per-row counts and the first validation errors
+     */
+    BulkRegistrationResponse registerUsers(InputStream csv) throws IOException;
+}
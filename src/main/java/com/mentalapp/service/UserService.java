@@ -7,6 +7,7 @@ import com.mentalapp.dto.UserProfileResponse;
 import com.mentalapp.dto.UserUpdateRequest;
 import com.mentalapp.dto.UserLoginRequest;
 import com.mentalapp.dto.GoogleAuthRequest;
+import com.mentalapp.dto.RefreshTokenRequest;
 import org.springframework.http.ResponseEntity;
 
 public interface UserService {
@@ -17,6 +18,10 @@ public interface UserService {
 
     ResponseEntity<?> authenticateUser(UserLoginRequest request);
 
+    AuthResponse refreshToken(RefreshTokenRequest request);
+
+    void logout(String accessToken, String refreshToken);
+
 //    AuthResponse googleAuth(GoogleAuthRequest request);
 
 //    User registerOAuthUser(String email, String name, String provider);
@@ -1,28 +1,46 @@
 package com.mentalapp.service.implementations;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mentalapp.ai.ActivityStreamParser;
+import com.mentalapp.ai.ActivitySuggestion;
+import com.mentalapp.ai.ActivityTemplateInterner;
+import com.mentalapp.ai.GeminiCallGuard;
+import com.mentalapp.ai.GeminiClient;
+import com.mentalapp.ai.GeminiRequestHedger;
+import com.mentalapp.ai.GeminiResponseDecoder;
+import com.mentalapp.ai.MicroBatcher;
+import com.mentalapp.ai.PrecomputedCatalog;
+import com.mentalapp.ai.PregeneratedSuggestions;
+import com.mentalapp.ai.SuggestionCache;
+import com.mentalapp.ai.SuggestionFingerprint;
+import com.mentalapp.ai.SuggestionMetrics;
+import com.mentalapp.ai.SuggestionRouter;
+import com.mentalapp.exception.GeminiResponseFormatException;
+import com.mentalapp.exception.GeminiUnavailableException;
+import com.mentalapp.mapper.MoodEntryMapper;
+import com.mentalapp.model.ActivityTemplate;
 import com.mentalapp.model.Emotion;
 import com.mentalapp.model.MoodEntry;
 import com.mentalapp.model.SuggestedActivity;
 import com.mentalapp.repository.SuggestedActivityRepository;
 import com.mentalapp.service.AIActivitySuggestionService;
+import com.mentalapp.service.SuggestionNotifier;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 
@@ -31,48 +49,252 @@ import java.util.ArrayList;
 @Slf4j
 public class AIActivitySuggestionServiceImpl implements AIActivitySuggestionService {
 
-    private final RestTemplate restTemplate;
+    private static final List<ActivitySuggestion> FALLBACK_SUGGESTIONS = List.of(
+            new ActivitySuggestion(
+                    "Take 5 deep breaths, focusing on the sensation of breathing in calm and breathing out tension. This simple exercise can help center your mind and reduce stress.",
+                    "breathing", 3, 1, 3),
+            new ActivitySuggestion(
+                    "Write down three things you're grateful for today, no matter how small. This practice can shift your perspective and improve your mood.",
+                    "gratitude", 5, 2, 4),
+            new ActivitySuggestion(
+                    "Take a 5-minute walk or do some gentle stretching. Physical movement, even briefly, can boost your energy and improve your mood.",
+                    "physical", 7, 2, 3));
+
+    private final GeminiClient geminiClient;
+    private final GeminiCallGuard geminiCallGuard;
+    private final GeminiRequestHedger geminiRequestHedger;
+    private final MeterRegistry meterRegistry;
     private final SuggestedActivityRepository suggestedActivityRepository;
     private final ObjectMapper objectMapper;
-
-    @Value("${gemini.api.key:}")
-    private String geminiApiKey;
-
-    @Value("${gemini.api.url:https://generativelanguage.googleapis.com/v1beta/models/gemini-pro:generateContent}")
-    private String geminiApiUrl;
+    private final GeminiResponseDecoder geminiResponseDecoder;
+    private final SuggestionCache suggestionCache;
+    private final SuggestionRouter suggestionRouter;
+    private final PrecomputedCatalog precomputedCatalog;
+    private final PregeneratedSuggestions pregeneratedSuggestions;
+    private final SuggestionMetrics suggestionMetrics;
+    private final SuggestionNotifier suggestionNotifier;
+    private final MoodEntryMapper moodEntryMapper;
+    private final ActivityTemplateInterner activityTemplateInterner;
+
+    @Value("${gemini.streaming.enabled:false}")
+    private boolean streamingEnabled;
+
+    @Value("${gemini.batching.enabled:false}")
+    private boolean batchingEnabled;
+
+    @Value("${gemini.batching.max-batch-size:10}")
+    private int maxBatchSize;
+
+    @Value("${gemini.batching.window:100ms}")
+    private Duration batchWindow;
+
+    private MicroBatcher<MoodEntry, List<ActivitySuggestion>> batcher;
+    private DistributionSummary batchSizes;
+
+    @PostConstruct
+    void init() {
+        batcher = new MicroBatcher<>(maxBatchSize, batchWindow, this::requestBatch);
+        batchSizes = DistributionSummary.builder("gemini.batch.size")
+                .description("Mood entries sent in one Gemini request")
+                .register(meterRegistry);
+    }
 
     @Override
     public List<SuggestedActivity> generateSuggestions(MoodEntry moodEntry) {
         log.info("Generating AI suggestions for mood entry: {}", moodEntry.getId());
 
         try {
-            // Generate prompt for Gemini API
-            String prompt = generatePrompt(moodEntry);
-            log.debug("Generated prompt for mood entry {}: {}", moodEntry.getId(), prompt);
+            // Near-identical entries reuse an earlier answer without calling Gemini
+            SuggestionFingerprint fingerprint = suggestionCache.fingerprint(moodEntry);
+            List<ActivitySuggestion> cached = suggestionCache.get(fingerprint);
+            if (cached != null) {
+                List<SuggestedActivity> savedActivities = saveAll(cached, moodEntry);
+                suggestionMetrics.countGenerated("cache");
+                log.info("Reused {} cached suggestions for mood entry: {}", savedActivities.size(), moodEntry.getId());
+                return savedActivities;
+            }
 
-            // Call Gemini API
-            String geminiResponse = callGeminiAPI(prompt);
-            log.info("Received response from Gemini API for mood entry: {}", moodEntry.getId());
+            // Prepared overnight for the state this user was predicted to check in with
+            List<ActivitySuggestion> pregenerated = pregeneratedSuggestions.take(moodEntry);
+            if (pregenerated != null) {
+                List<SuggestedActivity> savedActivities = saveAll(pregenerated, moodEntry);
+                suggestionMetrics.countGenerated("pregenerated");
+                log.info("Served {} pre-generated suggestions for mood entry: {}", savedActivities.size(), moodEntry.getId());
+                return savedActivities;
+            }
+
+            // Vetted answers prepared in the background for this entry's coarse mood state
+            List<ActivitySuggestion> precomputed = precomputedCatalog.lookup(moodEntry);
+            if (precomputed != null) {
+                List<SuggestedActivity> savedActivities = saveAll(precomputed, moodEntry);
+                suggestionMetrics.countGenerated("precomputed");
+                log.info("Served {} precomputed suggestions for mood entry: {}", savedActivities.size(), moodEntry.getId());
+                return savedActivities;
+            }
+
+            // Common entries are answered from the on-box catalog, unusual ones go to Gemini
+            List<ActivitySuggestion> local = suggestionRouter.suggestLocally(moodEntry, 3);
+            if (local != null) {
+                List<ActivitySuggestion> padded = new ArrayList<>(local);
+                padded.addAll(fallbackSuggestions(3 - local.size()));
+                List<SuggestedActivity> savedActivities = saveAll(padded, moodEntry);
+                suggestionMetrics.countGenerated("local");
+                log.info("Suggested {} local activities for mood entry: {}", local.size(), moodEntry.getId());
+                return savedActivities;
+            }
+
+            // Streamed activities are committed one by one from the HTTP client's threads, which
+            // only works once the entry itself is committed: with async suggestions, not inside
+            // the request's transaction
+            if (streamingEnabled && !batchingEnabled && !TransactionSynchronizationManager.isActualTransactionActive()) {
+                return generateStreamingSuggestions(moodEntry, fingerprint);
+            }
+
+            // Concurrent entries can share one Gemini request; a failed entry falls back on its own
+            List<ActivitySuggestion> suggestions = batchingEnabled
+                    ? batcher.submit(moodEntry)
+                    : requestSuggestions(moodEntry);
 
             // Process Gemini response and create activities
-            List<SuggestedActivity> activities = processGeminiResponse(geminiResponse, moodEntry);
+            List<SuggestedActivity> activities = toActivities(suggestions, moodEntry, fingerprint);
 
-            // Save all activities to database
-            List<SuggestedActivity> savedActivities = activities.stream()
-                    .map(suggestedActivityRepository::save)
-                    .collect(Collectors.toList());
+            // Save all activities to database; inserted as one JDBC batch on flush
+            List<SuggestedActivity> savedActivities = suggestedActivityRepository.saveAll(activities);
+            suggestionMetrics.countGenerated("gemini");
 
             log.info("Successfully generated and saved {} activities for mood entry: {}",
                     savedActivities.size(), moodEntry.getId());
             return savedActivities;
 
+        } catch (GeminiUnavailableException e) {
+            // Breaker open or bulkhead full: fall back without waiting on Gemini
+            log.debug("Gemini unavailable ({}), using fallback activities for mood entry: {}",
+                    e.getReason(), moodEntry.getId());
+            suggestionMetrics.countFallback(e.getReason());
+            return generateAndSaveFallbackActivities(moodEntry, 3);
+        } catch (GeminiResponseFormatException e) {
+            log.warn("Unusable Gemini response for mood entry: {}: {}", moodEntry.getId(), e.getMessage());
+            suggestionMetrics.countFallback("parse_error");
+            return generateAndSaveFallbackActivities(moodEntry, 3);
         } catch (Exception e) {
             log.error("Error generating AI suggestions for mood entry: {}", moodEntry.getId(), e);
+            suggestionMetrics.countFallback("error");
             // Return fallback activities instead of throwing exception
             return generateAndSaveFallbackActivities(moodEntry, 3);
         }
     }
 
+    /**
+     * Streams the answer and saves each activity as soon as its JSON object is complete,
+     * pushing it to SSE subscribers before the model has finished. Must be called outside a
+     * transaction for an already committed entry, since each activity is saved in its own
+     * transaction on the HTTP client's thread. Handles its own failures: whatever arrived is
+     * kept and the rest is padded with fallbacks.
+     */
+    private List<SuggestedActivity> generateStreamingSuggestions(MoodEntry moodEntry,
+            SuggestionFingerprint fingerprint) {
+        List<ActivitySuggestion> received = new ArrayList<>();
+        List<SuggestedActivity> savedActivities = new ArrayList<>();
+        boolean failed = false;
+        try {
+            String prompt = suggestionMetrics.buildPrompt(() -> generatePrompt(moodEntry));
+            ActivityStreamParser parser = new ActivityStreamParser(json -> {
+                ActivitySuggestion suggestion = parseStreamedActivity(json);
+                if (suggestion == null || savedActivities.size() >= 3) {
+                    return;
+                }
+                received.add(suggestion);
+                SuggestedActivity activity = suggestedActivityRepository.save(toActivities(List.of(suggestion), moodEntry).get(0));
+                savedActivities.add(activity);
+                suggestionNotifier.publishActivity(moodEntry.getId(), moodEntryMapper.toActivityResponse(activity));
+            });
+            streamGeminiAPI(prompt, parser::feed);
+            log.info("Streamed {} activities from Gemini API for mood entry: {}", received.size(), moodEntry.getId());
+
+            // Only complete answers are cached; padded ones would pin fallbacks to the key
+            if (received.size() >= 3) {
+                suggestionCache.put(fingerprint, moodEntry, received);
+            }
+        } catch (GeminiUnavailableException e) {
+            log.debug("Gemini unavailable ({}), using fallback activities for mood entry: {}",
+                    e.getReason(), moodEntry.getId());
+            suggestionMetrics.countFallback(e.getReason());
+            failed = true;
+        } catch (Exception e) {
+            log.error("Error streaming AI suggestions for mood entry: {}", moodEntry.getId(), e);
+            suggestionMetrics.countFallback("error");
+            failed = true;
+        }
+
+        if (!savedActivities.isEmpty()) {
+            suggestionMetrics.countGenerated("gemini");
+        } else if (!failed) {
+            suggestionMetrics.countFallback("empty");
+        }
+        if (savedActivities.size() < 3) {
+            if (!savedActivities.isEmpty()) {
+                suggestionMetrics.countPadded();
+            }
+            log.warn("Streamed only {} activities, generating fallback activities", savedActivities.size());
+            savedActivities.addAll(generateAndSaveFallbackActivities(moodEntry, 3 - savedActivities.size()));
+        }
+        return savedActivities;
+    }
+
+    private ActivitySuggestion parseStreamedActivity(String json) {
+        try {
+            return geminiResponseDecoder.decodeActivity(json);
+        } catch (GeminiResponseFormatException e) {
+            suggestionMetrics.countParseFailure();
+            log.warn("Skipping malformed activity in streamed Gemini response: {}", json);
+            return null;
+        }
+    }
+
+    @Override
+    public List<ActivitySuggestion> requestSuggestions(MoodEntry moodEntry) {
+        // Generate prompt for Gemini API
+        String prompt = suggestionMetrics.buildPrompt(() -> generatePrompt(moodEntry));
+        log.debug("Generated prompt for mood entry {}: {}", moodEntry.getId(), prompt);
+
+        // Call Gemini API
+        String geminiResponse = callGeminiAPI(prompt);
+        log.info("Received response from Gemini API for mood entry: {}", moodEntry.getId());
+
+        // Single pass over the envelope, binding activities directly
+        suggestionMetrics.recordUsage(geminiResponseDecoder.usage(geminiResponse));
+        return suggestionMetrics.parse(geminiResponse, geminiResponseDecoder::decodeActivities);
+    }
+
+    /**
+     * Batch handler: one prompt for all entries, answered as a JSON object keyed by entry id.
+     * Entries missing from the answer get a null result and fall back individually.
+     */
+    private List<List<ActivitySuggestion>> requestBatch(List<MoodEntry> moodEntries) {
+        batchSizes.record(moodEntries.size());
+        if (moodEntries.size() == 1) {
+            return List.of(requestSuggestions(moodEntries.get(0)));
+        }
+
+        String prompt = suggestionMetrics.buildPrompt(() -> generateBatchPrompt(moodEntries));
+        String geminiResponse = callGeminiAPI(prompt);
+        log.info("Received batched response from Gemini API for {} mood entries", moodEntries.size());
+
+        suggestionMetrics.recordUsage(geminiResponseDecoder.usage(geminiResponse));
+        Map<String, List<ActivitySuggestion>> byEntryId =
+                suggestionMetrics.parse(geminiResponse, geminiResponseDecoder::decodeActivitiesByKey);
+        List<List<ActivitySuggestion>> results = new ArrayList<>(moodEntries.size());
+        for (MoodEntry moodEntry : moodEntries) {
+            List<ActivitySuggestion> suggestions = byEntryId.get(String.valueOf(moodEntry.getId()));
+            if (suggestions == null) {
+                log.warn("Batched Gemini response has no activities for mood entry: {}", moodEntry.getId());
+                suggestionMetrics.countParseFailure();
+            }
+            results.add(suggestions);
+        }
+        return results;
+    }
+
     private String callGeminiAPI(String prompt) {
         validateApiConfiguration();
 
@@ -82,32 +304,42 @@ public class AIActivitySuggestionServiceImpl implements AIActivitySuggestionServ
                     "contents", List.of(Map.of(
                             "parts", List.of(Map.of("text", prompt)))));
 
-            // Set headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("x-goog-api-key", geminiApiKey);
-
-            // Create HTTP entity
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-
-            // Make the API call
-            ResponseEntity<String> response = restTemplate.postForEntity(geminiApiUrl, request, String.class);
-
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                log.info("Successfully called Gemini API");
-                return response.getBody();
-            } else {
-                throw new RuntimeException("Gemini API call failed with status: " + response.getStatusCode());
-            }
+            // Bounded by the client's connect, read and total deadlines, and by the breaker and bulkhead.
+            // A slow call may be hedged; each attempt goes through the guard on its own.
+            String body = objectMapper.writeValueAsString(requestBody);
+            String response = geminiRequestHedger.execute(
+                    () -> geminiCallGuard.execute(() -> geminiClient.generateContent(body)));
+            log.info("Successfully called Gemini API");
+            return response;
 
+        } catch (GeminiUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error calling Gemini API", e);
             throw new RuntimeException("Failed to call Gemini API", e);
         }
     }
 
+    private void streamGeminiAPI(String prompt, Consumer<String> onText) {
+        validateApiConfiguration();
+
+        try {
+            Map<String, Object> requestBody = Map.of(
+                    "contents", List.of(Map.of(
+                            "parts", List.of(Map.of("text", prompt)))));
+
+            String body = objectMapper.writeValueAsString(requestBody);
+            geminiCallGuard.execute(() -> {
+                geminiClient.streamGenerateContent(body, onText);
+                return null;
+            });
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to build Gemini request", e);
+        }
+    }
+
     private void validateApiConfiguration() {
-        if (geminiApiKey == null || geminiApiKey.isEmpty()) {
+        if (!geminiClient.isConfigured()) {
             throw new RuntimeException("Gemini API key not configured");
         }
     }
@@ -119,6 +351,35 @@ public class AIActivitySuggestionServiceImpl implements AIActivitySuggestionServ
         prompt.append("Each activity should be specific, actionable, and appropriate for their current state.\\n\\n");
 
         prompt.append("Mood Entry Details:\\n");
+        appendEntryDetails(prompt, moodEntry);
+
+        prompt.append("\\nProvide the suggestions as a JSON array of objects, where each object has the following fields:\\n");
+        appendActivityFields(prompt);
+        prompt.append("Ensure the output is a valid JSON array, without any additional text or markdown outside the JSON block.");
+
+        return prompt.toString();
+    }
+
+    private String generateBatchPrompt(List<MoodEntry> moodEntries) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("For each of the following mood entries, suggest 3 personalized activities that would be beneficial for mental health and well-being. ");
+        prompt.append("Consider each user's emotions, energy level, environment, and passion. ");
+        prompt.append("Each activity should be specific, actionable, and appropriate for that user's current state.\\n\\n");
+
+        for (MoodEntry moodEntry : moodEntries) {
+            prompt.append("Mood Entry ").append(moodEntry.getId()).append(" Details:\\n");
+            appendEntryDetails(prompt, moodEntry);
+            prompt.append("\\n");
+        }
+
+        prompt.append("Provide the suggestions as a JSON object whose keys are the mood entry ids above and whose values are JSON arrays of 3 objects, where each object has the following fields:\\n");
+        appendActivityFields(prompt);
+        prompt.append("Ensure the output is a valid JSON object, without any additional text or markdown outside the JSON block.");
+
+        return prompt.toString();
+    }
+
+    private void appendEntryDetails(StringBuilder prompt, MoodEntry moodEntry) {
         prompt.append("- Entry Date: ").append(moodEntry.getEntryDate().toString()).append("\\n");
         prompt.append("- Location: ").append(moodEntry.getLocation() != null ? moodEntry.getLocation() : "N/A").append("\\n");
         prompt.append("- Comfort Environment: ").append(moodEntry.getComfortEnvironment() != null ? moodEntry.getComfortEnvironment() : "N/A").append("\\n");
@@ -135,8 +396,9 @@ public class AIActivitySuggestionServiceImpl implements AIActivitySuggestionServ
         } else {
             prompt.append("- Emotions: None recorded\\n");
         }
+    }
 
-        prompt.append("\\nProvide the suggestions as a JSON array of objects, where each object has the following fields:\\n");
+    private void appendActivityFields(StringBuilder prompt) {
         prompt.append("{\\n");
         prompt.append("  \"description\": \"string (detailed description of the activity)\",\\n");
         prompt.append("  \"type\": \"string (e.g., 'mindfulness', 'physical', 'creative', 'social', 'self_care')\",\\n");
@@ -144,159 +406,49 @@ public class AIActivitySuggestionServiceImpl implements AIActivitySuggestionServ
         prompt.append("  \"difficulty\": \"integer (1-5, 1 being easy, 5 being hard)\",\\n");
         prompt.append("  \"priority\": \"integer (1-5, 1 being high priority, 5 being low priority)\"\\n");
         prompt.append("}\\n");
-        prompt.append("Ensure the output is a valid JSON array, without any additional text or markdown outside the JSON block.");
-
-        return prompt.toString();
     }
 
-    private List<SuggestedActivity> processGeminiResponse(String geminiResponse, MoodEntry moodEntry) {
-        try {
-            // Parse the Gemini API response
-            JsonNode responseNode = objectMapper.readTree(geminiResponse);
-
-            // Extract the text content from the response
-            String content = extractContentFromResponse(responseNode);
-            log.info("Extracted content from Gemini response: {}", content);
-
-            // Parse the JSON array of activities
-            List<Map<String, Object>> activitiesData = parseActivitiesFromContent(content);
-
-            // Convert to SuggestedActivity objects
-            List<SuggestedActivity> activities = activitiesData.stream()
-                .map(activityData -> createActivityFromGeminiResponse(activityData, moodEntry))
-                .collect(Collectors.toList());
-
-            // Ensure we have exactly 3 activities
-            if (activities.size() < 3) {
-                log.warn("Gemini API returned only {} activities, generating fallback activities", activities.size());
-                activities.addAll(generateFallbackActivities(moodEntry, 3 - activities.size()));
-            } else if (activities.size() > 3) {
-                activities = activities.subList(0, 3);
-            }
-
-            return activities;
-
-        } catch (Exception e) {
-            log.error("Error processing Gemini response, using fallback activities", e);
-            return generateFallbackActivities(moodEntry, 3);
+    private List<SuggestedActivity> toActivities(List<ActivitySuggestion> suggestions, MoodEntry moodEntry,
+            SuggestionFingerprint fingerprint) {
+        if (suggestions.isEmpty()) {
+            throw new GeminiResponseFormatException("Gemini returned no activities");
         }
-    }
 
-    private String extractContentFromResponse(JsonNode responseNode) {
-        try {
-            // Navigate through the response structure to extract the text content
-            JsonNode candidates = responseNode.get("candidates");
-            if (candidates != null && candidates.isArray() && candidates.size() > 0) {
-                JsonNode firstCandidate = candidates.get(0);
-                JsonNode content = firstCandidate.get("content");
-                if (content != null) {
-                    JsonNode parts = content.get("parts");
-                    if (parts != null && parts.isArray() && parts.size() > 0) {
-                        JsonNode firstPart = parts.get(0);
-                        JsonNode text = firstPart.get("text");
-                        if (text != null) {
-                            return text.asText();
-                        }
-                    }
-                }
-            }
-            throw new RuntimeException("Could not extract content from Gemini response");
-        } catch (Exception e) {
-            log.error("Error extracting content from Gemini response", e);
-            throw new RuntimeException("Failed to extract content from Gemini response", e);
+        // Only complete answers are cached; padded ones would pin fallbacks to the key
+        if (suggestions.size() >= 3) {
+            suggestionCache.put(fingerprint, moodEntry, suggestions.subList(0, 3));
         }
-    }
 
-    private List<Map<String, Object>> parseActivitiesFromContent(String content) {
-        try {
-            // Try to find JSON array in the response content
-            int startBracket = content.indexOf('[');
-            int endBracket = content.lastIndexOf(']');
-
-            if (startBracket != -1 && endBracket != -1 && endBracket > startBracket) {
-                String jsonArray = content.substring(startBracket, endBracket + 1);
-                return objectMapper.readValue(jsonArray, new TypeReference<List<Map<String, Object>>>() {});
-            } else {
-                throw new RuntimeException("No JSON array found in Gemini response");
-            }
-        } catch (JsonProcessingException e) {
-            log.error("Error parsing activities JSON from Gemini response", e);
-            throw new RuntimeException("Failed to parse activities from Gemini response", e);
+        // Ensure we have exactly 3 activities
+        List<ActivitySuggestion> selected = new ArrayList<>(suggestions.subList(0, Math.min(3, suggestions.size())));
+        if (selected.size() < 3) {
+            log.warn("Gemini API returned only {} activities, generating fallback activities", selected.size());
+            suggestionMetrics.countPadded();
+            selected.addAll(fallbackSuggestions(3 - selected.size()));
         }
-    }
 
-    private SuggestedActivity createActivityFromGeminiResponse(Map<String, Object> activityData, MoodEntry moodEntry) {
-        SuggestedActivity activity = new SuggestedActivity();
-        activity.setMoodEntry(moodEntry);
-
-        // Extract data from the Gemini response
-        activity.setActivityDescription(getStringValue(activityData, "description", "Activity description"));
-        activity.setActivityType(getStringValue(activityData, "type", "self_care"));
-        activity.setEstimatedDurationMinutes(getIntegerValue(activityData, "duration", 5));
-        activity.setDifficultyLevel(getIntegerValue(activityData, "difficulty", 2));
-        activity.setPriorityLevel(getIntegerValue(activityData, "priority", 3));
-        activity.setIsCompleted(false);
-
-        return activity;
-    }
-
-    private String getStringValue(Map<String, Object> data, String key, String defaultValue) {
-        Object value = data.get(key);
-        return value != null ? value.toString() : defaultValue;
+        return toActivities(selected, moodEntry);
     }
 
-    private Integer getIntegerValue(Map<String, Object> data, String key, Integer defaultValue) {
-        Object value = data.get(key);
-        if (value instanceof Number) {
-            return ((Number) value).intValue();
-        } else if (value instanceof String) {
-            try {
-                return Integer.parseInt((String) value);
-            } catch (NumberFormatException e) {
-                return defaultValue;
-            }
-        }
-        return defaultValue;
+    private static List<ActivitySuggestion> fallbackSuggestions(int count) {
+        return FALLBACK_SUGGESTIONS.subList(0, Math.max(0, Math.min(count, FALLBACK_SUGGESTIONS.size())));
     }
 
-    private List<SuggestedActivity> generateFallbackActivities(MoodEntry moodEntry, int count) {
-        List<SuggestedActivity> fallbacks = new ArrayList<>();
-        if (count > 0) {
-            fallbacks.add(createActivity(moodEntry, "Mindful Breathing Exercise",
-                "Take 5 deep breaths, focusing on the sensation of breathing in calm and breathing out tension. This simple exercise can help center your mind and reduce stress.",
-                "breathing", 3, 1, 3));
-        }
-        if (count > 1) {
-            fallbacks.add(createActivity(moodEntry, "Gratitude Reflection",
-                "Write down three things you're grateful for today, no matter how small. This practice can shift your perspective and improve your mood.",
-                "gratitude", 5, 2, 4));
-        }
-        if (count > 2) {
-            fallbacks.add(createActivity(moodEntry, "Gentle Movement",
-                "Take a 5-minute walk or do some gentle stretching. Physical movement, even briefly, can boost your energy and improve your mood.",
-                "physical", 7, 2, 3));
-        }
-        return fallbacks;
+    private List<SuggestedActivity> generateAndSaveFallbackActivities(MoodEntry moodEntry, int count) {
+        return saveAll(fallbackSuggestions(count), moodEntry);
     }
 
-    private List<SuggestedActivity> generateAndSaveFallbackActivities(MoodEntry moodEntry, int count) {
-        List<SuggestedActivity> fallbacks = generateFallbackActivities(moodEntry, count);
-        return fallbacks.stream()
-                .map(suggestedActivityRepository::save)
-                .collect(Collectors.toList());
+    private List<SuggestedActivity> saveAll(List<ActivitySuggestion> suggestions, MoodEntry moodEntry) {
+        return suggestedActivityRepository.saveAll(toActivities(suggestions, moodEntry));
     }
 
-    private SuggestedActivity createActivity(MoodEntry moodEntry, String title, String description,
-            String activityType, Integer duration, Integer difficulty, Integer priority) {
-        SuggestedActivity activity = new SuggestedActivity();
-        activity.setMoodEntry(moodEntry);
-        activity.setActivityDescription(description);
-        activity.setActivityType(activityType);
-        activity.setEstimatedDurationMinutes(duration);
-        activity.setDifficultyLevel(difficulty);
-        activity.setPriorityLevel(priority);
-        activity.setIsCompleted(false);
-        return activity;
+    // Rows reference shared templates; only templates not seen before are written
+    private List<SuggestedActivity> toActivities(List<ActivitySuggestion> suggestions, MoodEntry moodEntry) {
+        List<SuggestedActivity> activities = new ArrayList<>(suggestions.size());
+        for (ActivityTemplate template : activityTemplateInterner.internAll(suggestions)) {
+            activities.add(new SuggestedActivity(moodEntry, template));
+        }
+        return activities;
     }
 }
 
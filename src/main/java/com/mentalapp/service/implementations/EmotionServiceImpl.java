@@ -6,6 +6,7 @@ import com.mentalapp.model.Emotion;
 import com.mentalapp.dto.MoodEntryResponse;
 import com.mentalapp.mapper.EmotionMapper;
 import com.mentalapp.repository.EmotionRepository;
+import com.mentalapp.service.EmotionRegistry;
 import com.mentalapp.service.EmotionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +24,7 @@ public class EmotionServiceImpl implements EmotionService {
 
     private final EmotionRepository emotionRepository;
     private final EmotionMapper emotionMapper;
+    private final EmotionRegistry emotionRegistry;
 
     @Override
     @Transactional(readOnly = true)
@@ -89,6 +91,7 @@ public class EmotionServiceImpl implements EmotionService {
         }
 
         Emotion savedEmotion = emotionRepository.save(emotion);
+        emotionRegistry.reloadAfterCommit();
         log.info("Created new emotion: {} with key: {}", label, key);
 
         return savedEmotion;
@@ -108,6 +111,7 @@ public class EmotionServiceImpl implements EmotionService {
         }
 
         emotionRepository.delete(emotion);
+        emotionRegistry.reloadAfterCommit();
         log.info("Deleted emotion: {} with key: {}", emotion.getLabel(), emotion.getKey());
     }
 }
@@ -1,24 +1,28 @@
 package com.mentalapp.service.implementations;
 
+import com.mentalapp.event.MoodEntryCreatedEvent;
 import com.mentalapp.exception.ResourceNotFoundException;
 import com.mentalapp.model.MoodEntry;
+import com.mentalapp.model.SuggestionStatus;
 import com.mentalapp.model.User;
 import com.mentalapp.dto.MoodEntryCreateRequest;
 import com.mentalapp.dto.MoodEntryResponse;
 import com.mentalapp.dto.MoodEntryUpdateRequest;
 import com.mentalapp.dto.DailyMoodSummaryDto;
+import com.mentalapp.dto.SuggestionStatusResponse;
 import com.mentalapp.mapper.MoodEntryMapper;
 import com.mentalapp.repository.MoodEntryRepository;
 import com.mentalapp.service.AIActivitySuggestionService;
 import com.mentalapp.service.MoodEntryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -30,6 +34,10 @@ public class MoodEntryServiceImpl implements MoodEntryService {
     private final MoodEntryRepository moodEntryRepository;
     private final MoodEntryMapper moodEntryMapper;
     private final AIActivitySuggestionService aiActivitySuggestionService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${suggestions.async.enabled:true}")
+    private boolean asyncSuggestions;
 
     @Override
     @Transactional
@@ -37,14 +45,24 @@ public class MoodEntryServiceImpl implements MoodEntryService {
         MoodEntry moodEntry = moodEntryMapper.toEntity(request);
         moodEntry.setUser(user);
 
-        // Save the mood entry first
+        if (asyncSuggestions) {
+            // Suggestions are generated after commit; clients poll or subscribe for them
+            moodEntry.setSuggestionStatus(SuggestionStatus.PENDING);
+            moodEntry = moodEntryRepository.saveAndFlush(moodEntry);
+            log.info("Created mood entry for user: {} with id: {}", user.getEmail(), moodEntry.getId());
+            eventPublisher.publishEvent(new MoodEntryCreatedEvent(moodEntry.getId(), user.getId()));
+            return moodEntryMapper.toResponse(moodEntry);
+        }
+
+        // Persisting only assigns a pooled sequence id; the entry, its emotion links and its
+        // activities are inserted together in batches when the transaction flushes
         moodEntry = moodEntryRepository.save(moodEntry);
         log.info("Created mood entry for user: {} with id: {}", user.getEmail(), moodEntry.getId());
 
         // Generate and save AI suggestions
         try {
-            moodEntry.setSuggestedActivities(new HashSet<>(aiActivitySuggestionService.generateSuggestions(moodEntry)));
-            moodEntry = moodEntryRepository.save(moodEntry);
+            // Added in place: replacing the managed collection would make Hibernate update the entry row
+            moodEntry.getSuggestedActivities().addAll(aiActivitySuggestionService.generateSuggestions(moodEntry));
             log.info("Generated {} AI suggestions for mood entry: {}",
                     moodEntry.getSuggestedActivities().size(), moodEntry.getId());
         } catch (Exception e) {
@@ -52,26 +70,39 @@ public class MoodEntryServiceImpl implements MoodEntryService {
             // Continue without AI suggestions if they fail
         }
 
+        // Single flush for the whole create; also fills in the generated timestamps for the response
+        moodEntryRepository.flush();
+
         return moodEntryMapper.toResponse(moodEntry);
     }
 
     @Override
     @Transactional(readOnly = true)
     public MoodEntryResponse getMoodEntryById(Long id, User user) {
-        MoodEntry moodEntry = moodEntryRepository.findById(id)
+        MoodEntry moodEntry = moodEntryRepository.findWithDetailsById(id)
                 .filter(entry -> entry.getUser().getId().equals(user.getId()))
                 .orElseThrow(() -> new ResourceNotFoundException("Mood entry not found"));
 
         return moodEntryMapper.toResponse(moodEntry);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public SuggestionStatusResponse getSuggestionStatus(Long id, User user) {
+        MoodEntry moodEntry = moodEntryRepository.findWithSuggestionsById(id)
+                .filter(entry -> entry.getUser().getId().equals(user.getId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Mood entry not found"));
+
+        return moodEntryMapper.toSuggestionStatusResponse(moodEntry);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<MoodEntryResponse> getMoodEntriesByDate(User user, LocalDateTime date) {
         LocalDateTime startOfDay = date.toLocalDate().atStartOfDay();
         LocalDateTime endOfDay = startOfDay.plusDays(1);
 
-        return moodEntryRepository.findByUserIdAndDate(user.getId(), startOfDay, endOfDay)
+        return moodEntryRepository.findWithDetailsByUserIdAndDateRange(user.getId(), startOfDay, endOfDay)
                 .stream()
                 .map(moodEntryMapper::toResponse)
                 .collect(Collectors.toList());
@@ -97,7 +128,7 @@ public class MoodEntryServiceImpl implements MoodEntryService {
         LocalDateTime startDateTime = startDate.atStartOfDay();
         LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay();
 
-        return moodEntryRepository.findByUserIdAndDateRange(user.getId(), startDateTime, endDateTime)
+        return moodEntryRepository.findWithDetailsByUserIdAndDateRange(user.getId(), startDateTime, endDateTime)
                 .stream()
                 .map(moodEntryMapper::toResponse)
                 .collect(Collectors.toList());
@@ -109,7 +140,7 @@ public class MoodEntryServiceImpl implements MoodEntryService {
         LocalDateTime startOfDay = date.atStartOfDay();
         LocalDateTime endOfDay = startOfDay.plusDays(1);
 
-        List<MoodEntry> entries = moodEntryRepository.findByUserIdAndDate(user.getId(), startOfDay, endOfDay);
+        List<MoodEntry> entries = moodEntryRepository.findWithDetailsByUserIdAndDateRange(user.getId(), startOfDay, endOfDay);
 
         if (entries.isEmpty()) {
             return null;
@@ -0,0 +1,127 @@
+package com.mentalapp.service.implementations;
+
+import com.mentalapp.exception.InvalidRefreshTokenException;
+import com.mentalapp.model.RefreshToken;
+import com.mentalapp.model.User;
+import com.mentalapp.repository.RefreshTokenRepository;
+import com.mentalapp.service.RefreshTokenService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh-token.expiration:604800000}")
+    private long refreshTokenExpiration;
+
+    // How long a rotated or revoked token is kept so that presenting it again revokes its family
+    @Value("${jwt.refresh-token.purge.revoked-retention:1d}")
+    private Duration revokedRetention;
+
+    @Override
+    @Transactional
+    public String issue(User user) {
+        return createToken(user, UUID.randomUUID().toString()).rawToken;
+    }
+
+    @Override
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+
+        if (current.getRevokedAt() != null) {
+            // A rotated token came back: someone holds a copy, so cut off the whole family
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId(), LocalDateTime.now());
+            log.warn("Refresh token reuse detected for user id: {}, revoked {} tokens in family {}",
+                    current.getUser().getId(), revoked, current.getFamilyId());
+            throw new InvalidRefreshTokenException("Refresh token has already been used");
+        }
+        if (!current.isActive()) {
+            throw new InvalidRefreshTokenException("Refresh token has expired");
+        }
+
+        IssuedToken next = createToken(current.getUser(), current.getFamilyId());
+        current.setRevokedAt(LocalDateTime.now());
+        current.setReplacedByHash(next.entity.getTokenHash());
+        refreshTokenRepository.save(current);
+
+        // The new access token carries the user's roles and is signed after this transaction
+        Hibernate.initialize(current.getUser().getRoles());
+        return new Rotation(current.getUser(), next.rawToken);
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(initialDelayString = "${jwt.refresh-token.purge.interval:1h}",
+            fixedDelayString = "${jwt.refresh-token.purge.interval:1h}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = refreshTokenRepository.deleteExpiredOrRevokedBefore(now, now.minus(revokedRetention));
+        if (deleted > 0) {
+            log.info("Purged {} expired or revoked refresh tokens", deleted);
+        }
+    }
+
+    private IssuedToken createToken(User user, String familyId) {
+        byte[] random = new byte[32];
+        RANDOM.nextBytes(random);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+
+        RefreshToken token = new RefreshToken();
+        token.setUser(user);
+        token.setTokenHash(hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshTokenExpiration)));
+
+        return new IssuedToken(rawToken, refreshTokenRepository.save(token));
+    }
+
+    // Refresh tokens carry 256 random bits, so a plain SHA-256 is enough; no slow hash needed
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class IssuedToken {
+        private final String rawToken;
+        private final RefreshToken entity;
+
+        private IssuedToken(String rawToken, RefreshToken entity) {
+            this.rawToken = rawToken;
+            this.entity = entity;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.mentalapp.service.implementations;
+
+import com.mentalapp.dto.BulkRegistrationResponse;
+import com.mentalapp.security.BoundedPasswordEncoder;
+import com.mentalapp.service.UserOnboardingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserOnboardingServiceImpl implements UserOnboardingService {
+
+    // Ids come from the same sequence Hibernate allocates User ids from
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, email, username, password_hash) VALUES (nextval('users_id_seq'), ?, ?, ?) "
+                    + "ON CONFLICT DO NOTHING";
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BoundedPasswordEncoder passwordEncoder;
+
+    @Value("${onboarding.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public BulkRegistrationResponse registerUsers(InputStream csv) throws IOException {
+        BulkRegistrationResponse response = new BulkRegistrationResponse();
+        List<String[]> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.toLowerCase(Locale.ROOT).startsWith("username,"))) {
+                    continue;
+                }
+                response.setTotalRows(response.getTotalRows() + 1);
+
+                String[] row = parseRow(line);
+                String error = validate(row);
+                if (error != null) {
+                    response.setInvalid(response.getInvalid() + 1);
+                    if (response.getErrors().size() < MAX_REPORTED_ERRORS) {
+                        response.getErrors().add("Line " + lineNumber + ": " + error);
+                    }
+                    continue;
+                }
+
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    insertBatch(batch, response);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(batch, response);
+        }
+
+        log.info("Bulk registration finished: {} rows, {} inserted, {} duplicates, {} invalid",
+                response.getTotalRows(), response.getInserted(), response.getDuplicates(), response.getInvalid());
+        return response;
+    }
+
+    private void insertBatch(List<String[]> batch, BulkRegistrationResponse response) {
+        List<String> hashes = passwordEncoder.encodeAll(batch.stream()
+                .map(row -> row[2])
+                .collect(Collectors.toList()));
+
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            String[] row = batch.get(i);
+            args.add(new Object[] { row[1], row[0], hashes.get(i) });
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_USER, args);
+        for (int count : counts) {
+            // Drivers that rewrite batches only report SUCCESS_NO_INFO; count those as inserted
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                response.setInserted(response.getInserted() + 1);
+            } else {
+                response.setDuplicates(response.getDuplicates() + 1);
+            }
+        }
+    }
+
+    // Plain comma-separated values; quoting is not supported since none of the fields may contain commas
+    private static String[] parseRow(String line) {
+        String[] fields = line.split(",", -1);
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fields[i].trim();
+        }
+        return fields;
+    }
+
+    // Mirrors the constraints on UserRegistrationRequest
+    private static String validate(String[] row) {
+        if (row.length != 3) {
+            return "expected 3 columns (username,email,password) but found " + row.length;
+        }
+        if (row[0].length() < 3 || row[0].length() > 50) {
+            return "Username must be between 3 and 50 characters";
+        }
+        if (!EMAIL.matcher(row[1]).matches()) {
+            return "Email should be valid";
+        }
+        if (row[2].length() < 6) {
+            return "Password must be at least 6 characters";
+        }
+        return null;
+    }
+}
@@ -5,43 +5,68 @@ import com.mentalapp.mapper.UserMapper;
 import com.mentalapp.model.User;
 import com.mentalapp.repository.UserRepository;
 import com.mentalapp.security.JwtUtil;
+import com.mentalapp.security.TokenRevocationService;
+import com.mentalapp.security.UserCache;
+import com.mentalapp.security.VerifiedToken;
+import com.mentalapp.service.RefreshTokenService;
 import com.mentalapp.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final Pattern DUPLICATE_COLUMN = Pattern.compile("\\((username|email)[\\s)]");
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final UserCache userCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
 
     @Override
     @Transactional
     public User registerUser(UserRegistrationRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new IllegalArgumentException("Username already exists");
-        }
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new IllegalArgumentException("Email already exists");
-        }
-
         User user = userMapper.toEntity(request);
         user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
 
-        return userRepository.save(user);
+        // A single insert; the unique constraints decide whether the username or email is taken
+        User saved;
+        try {
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException(duplicateUserMessage(e), e);
+        }
+        userCache.evict(saved);
+        return saved;
+    }
+
+    private static String duplicateUserMessage(DataIntegrityViolationException e) {
+        // The violated column comes first in both the constraint detail and the index description
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        Matcher matcher = DUPLICATE_COLUMN.matcher(message);
+        if (matcher.find()) {
+            return "username".equals(matcher.group(1)) ? "Username already exists" : "Email already exists";
+        }
+        return "User already exists";
     }
 
 //    @Override
@@ -68,15 +93,35 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public ResponseEntity<?> authenticateUser(UserLoginRequest request) {
-        authenticationManager.authenticate(
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getUsernameOrEmail(), request.getPassword()));
 
-        // Try to find user by email first, then by username if not found
-        User user = userRepository.findByEmail(request.getUsernameOrEmail())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        // The provider already loaded the user, so reuse it instead of reading it again
+        if (!(authentication.getPrincipal() instanceof User user)) {
+            throw new UsernameNotFoundException("User not found");
+        }
         String token = jwtUtil.generateToken(user);
+        String refreshToken = refreshTokenService.issue(user);
 
-        return ResponseEntity.ok(new AuthResponse(token));
+        return ResponseEntity.ok(new AuthResponse(token, refreshToken));
+    }
+
+    @Override
+    public AuthResponse refreshToken(RefreshTokenRequest request) {
+        // No password check here: the rotated refresh token is the credential
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        return new AuthResponse(jwtUtil.generateToken(rotation.getUser()), rotation.getRefreshToken());
+    }
+
+    @Override
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            VerifiedToken token = jwtUtil.verifyToken(accessToken);
+            tokenRevocationService.revoke(token.getTokenId(), token.getExpiresAt());
+        }
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
     }
 
 //    @Override
@@ -0,0 +1,6 @@
+-- Suggestions are generated after the entry is committed; existing entries already have theirs
+ALTER TABLE mood_entries
+ADD COLUMN IF NOT EXISTS suggestion_status VARCHAR(20) NOT NULL DEFAULT 'READY';
+
+-- Only pending entries are looked up by status
+CREATE INDEX IF NOT EXISTS idx_mood_entries_suggestion_pending ON mood_entries(id) WHERE suggestion_status = 'PENDING';
@@ -0,0 +1,6 @@
+-- Hibernate now allocates ids for these tables from their sequences in blocks of 50
+-- (pooled optimizer), so each nextval must advance the sequence by the block size.
+-- Plain SQL inserts that take the column default still get unique ids.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE mood_entries_id_seq INCREMENT BY 50;
+ALTER SEQUENCE suggested_activities_id_seq INCREMENT BY 50;
@@ -0,0 +1,64 @@
+-- Activity content moves to a shared, content-addressed table; suggested_activities keeps
+-- only the reference and per-entry state. The id is the hex SHA-256 of the fields joined by
+-- chr(31), in the same order and format as ActivityTemplate.contentHash.
+CREATE TABLE IF NOT EXISTS activity_templates (
+    id CHAR(64) PRIMARY KEY,
+    description TEXT NOT NULL,
+    activity_type VARCHAR(100),
+    estimated_duration_minutes INTEGER,
+    difficulty_level INTEGER,
+    priority_level INTEGER
+);
+
+-- Existing rows have the V5 layout: title and description text, a category and a free-text
+-- difficulty. Convert them to template fields; V5 has no priority.
+CREATE TEMPORARY TABLE legacy_activity_content AS
+SELECT id AS activity_id,
+       coalesce(nullif(description, ''), title) AS description,
+       category AS activity_type,
+       estimated_duration_minutes,
+       CASE
+           WHEN difficulty_level ~ '^[0-9]+$' THEN difficulty_level::INTEGER
+           WHEN lower(difficulty_level) = 'easy' THEN 1
+           WHEN lower(difficulty_level) = 'medium' THEN 3
+           WHEN lower(difficulty_level) = 'hard' THEN 5
+       END AS difficulty_level,
+       NULL::INTEGER AS priority_level,
+       NULL::CHAR(64) AS template_id
+FROM suggested_activities;
+
+UPDATE legacy_activity_content
+SET template_id = encode(sha256(convert_to(
+        coalesce(activity_type, '') || chr(31)
+        || coalesce(estimated_duration_minutes::text, '') || chr(31)
+        || coalesce(difficulty_level::text, '') || chr(31)
+        || coalesce(priority_level::text, '') || chr(31)
+        || description, 'UTF8')), 'hex');
+
+INSERT INTO activity_templates (id, description, activity_type, estimated_duration_minutes, difficulty_level, priority_level)
+SELECT DISTINCT ON (template_id) template_id, description, activity_type,
+       estimated_duration_minutes, difficulty_level, priority_level
+FROM legacy_activity_content
+ORDER BY template_id
+ON CONFLICT DO NOTHING;
+
+ALTER TABLE suggested_activities ADD COLUMN IF NOT EXISTS template_id CHAR(64);
+
+UPDATE suggested_activities s
+SET template_id = l.template_id
+FROM legacy_activity_content l
+WHERE l.activity_id = s.id;
+
+DROP TABLE legacy_activity_content;
+
+ALTER TABLE suggested_activities ALTER COLUMN template_id SET NOT NULL;
+ALTER TABLE suggested_activities
+    ADD CONSTRAINT fk_suggested_activities_template FOREIGN KEY (template_id) REFERENCES activity_templates(id);
+CREATE INDEX IF NOT EXISTS idx_suggested_activities_template_id ON suggested_activities(template_id);
+
+ALTER TABLE suggested_activities
+    DROP COLUMN title,
+    DROP COLUMN description,
+    DROP COLUMN category,
+    DROP COLUMN estimated_duration_minutes,
+    DROP COLUMN difficulty_level;
@@ -0,0 +1,2 @@
+-- The purge job deletes revoked tokens by revocation time as well as expired ones by expiry
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_revoked_at ON refresh_tokens(revoked_at) WHERE revoked_at IS NOT NULL;
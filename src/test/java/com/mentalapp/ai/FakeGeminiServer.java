@@ -0,0 +1,299 @@
+package com.mentalapp.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for the Gemini API. Answers {@code generateContent} and
+ * {@code streamGenerateContent?alt=sse} with the same JSON shapes as Gemini, after a
+ * latency drawn from a configurable model, and can inject errors and malformed output.
+ * Batched prompts ("Mood Entry N Details") are answered with an object keyed by entry id.
+ *
+ * <p>Run {@link #main} to serve it on a fixed port for manual load tests.
+ */
+public final class FakeGeminiServer implements AutoCloseable {
+
+    /** Ways a successful (200) answer can be unusable. */
+    public enum MalformedMode {
+        // JSON cut off mid-object
+        TRUNCATED,
+        // Prose with no JSON at all
+        PROSE,
+        // Valid JSON of the wrong shape
+        WRONG_SHAPE,
+        // Fewer activities than asked for
+        SHORT
+    }
+
+    /** Response latency in milliseconds. */
+    @FunctionalInterface
+    public interface LatencyModel {
+
+        long sampleMillis(Random random);
+
+        static LatencyModel fixed(Duration latency) {
+            return random -> latency.toMillis();
+        }
+
+        static LatencyModel uniform(Duration min, Duration max) {
+            return random -> min.toMillis() + (long) (random.nextDouble() * (max.toMillis() - min.toMillis()));
+        }
+
+        // Long-tailed like real LLM latency, given its median and 99th percentile
+        static LatencyModel logNormal(Duration median, Duration p99) {
+            double sigma = Math.log((double) p99.toMillis() / Math.max(1, median.toMillis())) / 2.326;
+            return random -> Math.round(median.toMillis() * Math.exp(sigma * random.nextGaussian()));
+        }
+    }
+
+    private static final Pattern BATCH_ENTRY = Pattern.compile("Mood Entry (\\d+) Details");
+    private static final String MODEL_PATH = "/v1beta/models/fake";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyModel latency;
+    private final double errorRate;
+    private final int errorStatus;
+    private final double malformedRate;
+    private final MalformedMode malformedMode;
+    private final Random random;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong malformed = new AtomicLong();
+
+    private FakeGeminiServer(Builder builder) throws IOException {
+        this.latency = builder.latency;
+        this.errorRate = builder.errorRate;
+        this.errorStatus = builder.errorStatus;
+        this.malformedRate = builder.malformedRate;
+        this.malformedMode = builder.malformedMode;
+        this.random = new Random(builder.seed);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), builder.port), 0);
+        this.executor = Executors.newFixedThreadPool(builder.threads);
+        server.setExecutor(executor);
+        server.createContext(MODEL_PATH, this::handle);
+        server.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String generateContentUrl() {
+        return baseUrl() + ":generateContent";
+    }
+
+    public String streamGenerateContentUrl() {
+        return baseUrl() + ":streamGenerateContent?alt=sse";
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long errorCount() {
+        return errors.get();
+    }
+
+    public long malformedCount() {
+        return malformed.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + MODEL_PATH;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            String prompt = request.path("contents").path(0).path("parts").path(0).path("text").asText("");
+
+            sleep(latency.sampleMillis(random));
+            if (random.nextDouble() < errorRate) {
+                errors.incrementAndGet();
+                send(exchange, errorStatus, "{\"error\":{\"code\":" + errorStatus + ",\"message\":\"injected failure\"}}");
+                return;
+            }
+
+            String text = answer(prompt);
+            if (exchange.getRequestURI().getPath().endsWith(":streamGenerateContent")) {
+                stream(exchange, text);
+            } else {
+                send(exchange, 200, objectMapper.writeValueAsString(response(text)));
+            }
+        }
+    }
+
+    private String answer(String prompt) throws IOException {
+        if (random.nextDouble() < malformedRate) {
+            malformed.incrementAndGet();
+            return switch (malformedMode) {
+                case TRUNCATED -> {
+                    String full = objectMapper.writeValueAsString(activities("cut", 3));
+                    yield full.substring(0, full.length() / 2);
+                }
+                case PROSE -> "Here are some ideas: go for a walk, call a friend, and drink some water.";
+                case WRONG_SHAPE -> "{\"suggestions\": \"walk, read, rest\"}";
+                case SHORT -> objectMapper.writeValueAsString(activities("short", 1));
+            };
+        }
+
+        List<String> entryIds = new ArrayList<>();
+        Matcher matcher = BATCH_ENTRY.matcher(prompt);
+        while (matcher.find()) {
+            entryIds.add(matcher.group(1));
+        }
+        if (entryIds.isEmpty()) {
+            return "```json\n" + objectMapper.writeValueAsString(activities("fake", 3)) + "\n```";
+        }
+        Map<String, Object> byEntry = new LinkedHashMap<>();
+        entryIds.forEach(id -> byEntry.put(id, activities("entry " + id, 3)));
+        return objectMapper.writeValueAsString(byEntry);
+    }
+
+    private List<Map<String, Object>> activities(String label, int count) {
+        List<Map<String, Object>> activities = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Map<String, Object> activity = new LinkedHashMap<>();
+            activity.put("description", "Fake activity " + i + " for " + label + ": take a short mindful walk.");
+            activity.put("type", i % 2 == 0 ? "physical" : "mindfulness");
+            activity.put("duration", 5 * i);
+            activity.put("difficulty", i);
+            activity.put("priority", i);
+            activities.add(activity);
+        }
+        return activities;
+    }
+
+    private Map<String, Object> response(String text) {
+        return Map.of(
+                "candidates", List.of(Map.of("content", Map.of("role", "model", "parts", List.of(Map.of("text", text))))),
+                "usageMetadata", Map.of(
+                        "promptTokenCount", 180,
+                        "candidatesTokenCount", text.length() / 4,
+                        "totalTokenCount", 180 + text.length() / 4));
+    }
+
+    // Server-sent events, a few characters of the answer per event
+    private void stream(HttpExchange exchange, String text) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = exchange.getResponseBody();
+        for (int i = 0; i < text.length(); i += 24) {
+            String chunk = text.substring(i, Math.min(text.length(), i + 24));
+            body.write(("data: " + objectMapper.writeValueAsString(response(chunk)) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            sleep(5);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(Math.max(0, millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static final class Builder {
+
+        private LatencyModel latency = LatencyModel.fixed(Duration.ZERO);
+        private double errorRate;
+        private int errorStatus = 503;
+        private double malformedRate;
+        private MalformedMode malformedMode = MalformedMode.TRUNCATED;
+        private long seed = 42L;
+        private int port;
+        private int threads = 64;
+
+        public Builder latency(LatencyModel latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        public Builder errorRate(double errorRate, int status) {
+            this.errorRate = errorRate;
+            this.errorStatus = status;
+            return this;
+        }
+
+        public Builder malformedRate(double malformedRate, MalformedMode mode) {
+            this.malformedRate = malformedRate;
+            this.malformedMode = mode;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        // 0 picks a free port
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public FakeGeminiServer start() throws IOException {
+            return new FakeGeminiServer(this);
+        }
+    }
+
+    /**
+     * Serves the fake on a fixed port, e.g. for load tests of the running app with
+     * {@code gemini.api.url=http://127.0.0.1:<port>/v1beta/models/fake:generateContent}.
+     * Arguments: port, median latency ms, p99 latency ms, error rate, malformed rate.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        long median = args.length > 1 ? Long.parseLong(args[1]) : 800;
+        long p99 = args.length > 2 ? Long.parseLong(args[2]) : 2500;
+        FakeGeminiServer server = builder()
+                .port(port)
+                .latency(LatencyModel.logNormal(Duration.ofMillis(median), Duration.ofMillis(p99)))
+                .errorRate(args.length > 3 ? Double.parseDouble(args[3]) : 0.0, 503)
+                .malformedRate(args.length > 4 ? Double.parseDouble(args[4]) : 0.0, MalformedMode.TRUNCATED)
+                .start();
+        System.out.println("Fake Gemini listening on " + server.generateContentUrl());
+    }
+}
@@ -0,0 +1,106 @@
+package com.mentalapp.ai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mentalapp.exception.GeminiResponseFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class GeminiResponseDecoderTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GeminiResponseDecoder decoder = new GeminiResponseDecoder(objectMapper);
+
+    @Test
+    void decodesRecordedResponses() throws IOException {
+        assertThat(decoder.decodeActivities(load("fenced-array.json")))
+                .extracting(ActivitySuggestion::getType, ActivitySuggestion::getDurationMinutes)
+                .containsExactly(
+                        tuple("mindfulness", 5),
+                        tuple("physical", 20),
+                        tuple("social", 10));
+
+        // "5 minutes" is read as 5, 20.5 rounds, and out-of-range or unusable values are clamped or defaulted
+        assertThat(decoder.decodeActivities(load("prose-loose-fields.json")))
+                .extracting(ActivitySuggestion::getDurationMinutes, ActivitySuggestion::getDifficulty,
+                        ActivitySuggestion::getPriority)
+                .containsExactly(
+                        tuple(5, 1, 1),
+                        tuple(21, 2, 1),
+                        tuple(10, 5, 3));
+    }
+
+    @Test
+    void readsOnlyAsciiDigitsAsNumbers() throws JsonProcessingException {
+        String text = "[{\"description\": \"Breathe\", \"duration\": \"٣ minutes\", \"difficulty\": \"4٣\"}]";
+
+        assertThat(decoder.decodeActivities(envelope(text)))
+                .extracting(ActivitySuggestion::getDurationMinutes, ActivitySuggestion::getDifficulty)
+                .containsExactly(tuple(GeminiResponseDecoder.DEFAULT_DURATION, 4));
+    }
+
+    @Test
+    void keepsCompleteActivitiesOfATruncatedArray() throws JsonProcessingException {
+        String text = "[{\"description\": \"Stretch\", \"type\": \"physical\", \"duration\": 10},"
+                + " {\"description\": \"Journal\", \"type\": \"creat";
+
+        assertThat(decoder.decodeActivities(envelope(text)))
+                .extracting(ActivitySuggestion::getDescription, ActivitySuggestion::getType,
+                        ActivitySuggestion::getDurationMinutes)
+                .containsExactly(tuple("Stretch", "physical", 10));
+    }
+
+    @Test
+    void rejectsAnArrayTruncatedBeforeItsFirstActivity() throws JsonProcessingException {
+        String response = envelope("[{\"description\": \"Stre");
+
+        assertThatThrownBy(() -> decoder.decodeActivities(response))
+                .isInstanceOf(GeminiResponseFormatException.class);
+    }
+
+    @Test
+    void decodesBatchedAnswerByKey() throws JsonProcessingException {
+        String text = "```json\n{"
+                + "\"e1\": [{\"description\": \"Walk\", \"type\": \"physical\", \"duration\": \"15 minutes\"}],"
+                + "\"e2\": \"not an array\","
+                + "\"e3\": [],"
+                + "\"e4\": [{\"description\": \"Call a friend\", \"type\": \"social\", \"priority\": 9}]"
+                + "}\n```";
+
+        Map<String, List<ActivitySuggestion>> byKey = decoder.decodeActivitiesByKey(envelope(text));
+
+        assertThat(byKey).containsOnlyKeys("e1", "e4");
+        assertThat(byKey.get("e1")).extracting(ActivitySuggestion::getDurationMinutes).containsExactly(15);
+        assertThat(byKey.get("e4")).extracting(ActivitySuggestion::getPriority).containsExactly(5);
+    }
+
+    @Test
+    void keepsKeysCompletedBeforeABatchedAnswerWasCutOff() throws JsonProcessingException {
+        String text = "{\"e1\": [{\"description\": \"Walk\"}], \"e2\": [{\"descr";
+
+        Map<String, List<ActivitySuggestion>> byKey = decoder.decodeActivitiesByKey(envelope(text));
+
+        assertThat(byKey).containsOnlyKeys("e1");
+        assertThat(byKey.get("e1")).extracting(ActivitySuggestion::getDescription).containsExactly("Walk");
+    }
+
+    private String envelope(String text) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(Map.of("candidates", List.of(Map.of(
+                "content", Map.of("parts", List.of(Map.of("text", text)))))));
+    }
+
+    private static String load(String name) throws IOException {
+        try (InputStream in = GeminiResponseDecoderTests.class.getResourceAsStream("/gemini/" + name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.mentalapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mentalapp.ai.ActivitySuggestion;
+import com.mentalapp.ai.GeminiResponseDecoder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of {@link GeminiResponseDecoder} with the tree-and-map parsing it replaced,
+ * on recorded Gemini responses from {@code src/test/resources/gemini}. Decoding rules are
+ * checked in {@code GeminiResponseDecoderTests}.
+ *
+ * <p>Run with {@code mvn test -Pbenchmark -Dtest=GeminiResponseDecoderBenchmarkTests}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeminiResponseDecoderBenchmarkTests {
+
+    @Param({ "fenced-array.json", "prose-loose-fields.json" })
+    public String recording;
+
+    private String response;
+    private GeminiResponseDecoder decoder;
+    private LegacyGeminiResponseParser legacy;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        response = load(recording);
+        decoder = new GeminiResponseDecoder(objectMapper);
+        legacy = new LegacyGeminiResponseParser(objectMapper);
+    }
+
+    @Benchmark
+    public List<ActivitySuggestion> streamingDecoder() {
+        return decoder.decodeActivities(response);
+    }
+
+    @Benchmark
+    public List<ActivitySuggestion> legacyTreeParser() {
+        return legacy.parseSuggestions(response);
+    }
+
+    @Test
+    void runBenchmark() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GeminiResponseDecoderBenchmarkTests.class.getSimpleName() + "\\.")
+                .build())
+                .run();
+    }
+
+    private static String load(String name) throws IOException {
+        try (InputStream in = GeminiResponseDecoderBenchmarkTests.class.getResourceAsStream("/gemini/" + name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.mentalapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mentalapp.ai.ActivitySuggestion;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The tree-based parsing that AIActivitySuggestionServiceImpl used before
+ * {@link com.mentalapp.ai.GeminiResponseDecoder}, kept as the benchmark baseline.
+ */
+class LegacyGeminiResponseParser {
+
+    private final ObjectMapper objectMapper;
+
+    LegacyGeminiResponseParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    List<ActivitySuggestion> parseSuggestions(String geminiResponse) {
+        try {
+            JsonNode responseNode = objectMapper.readTree(geminiResponse);
+            String content = extractContentFromResponse(responseNode);
+            List<Map<String, Object>> activitiesData = parseActivitiesFromContent(content);
+            return activitiesData.stream()
+                    .map(this::createSuggestionFromGeminiResponse)
+                    .collect(Collectors.toList());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to parse Gemini response", e);
+        }
+    }
+
+    private String extractContentFromResponse(JsonNode responseNode) {
+        JsonNode candidates = responseNode.get("candidates");
+        if (candidates != null && candidates.isArray() && candidates.size() > 0) {
+            JsonNode content = candidates.get(0).get("content");
+            if (content != null) {
+                JsonNode parts = content.get("parts");
+                if (parts != null && parts.isArray() && parts.size() > 0) {
+                    JsonNode text = parts.get(0).get("text");
+                    if (text != null) {
+                        return text.asText();
+                    }
+                }
+            }
+        }
+        throw new RuntimeException("Could not extract content from Gemini response");
+    }
+
+    private List<Map<String, Object>> parseActivitiesFromContent(String content) throws JsonProcessingException {
+        int startBracket = content.indexOf('[');
+        int endBracket = content.lastIndexOf(']');
+        if (startBracket != -1 && endBracket != -1 && endBracket > startBracket) {
+            String jsonArray = content.substring(startBracket, endBracket + 1);
+            return objectMapper.readValue(jsonArray, new TypeReference<List<Map<String, Object>>>() {});
+        }
+        throw new RuntimeException("No JSON array found in Gemini response");
+    }
+
+    private ActivitySuggestion createSuggestionFromGeminiResponse(Map<String, Object> activityData) {
+        return new ActivitySuggestion(
+                getStringValue(activityData, "description", "Activity description"),
+                getStringValue(activityData, "type", "self_care"),
+                getIntegerValue(activityData, "duration", 5),
+                getIntegerValue(activityData, "difficulty", 2),
+                getIntegerValue(activityData, "priority", 3));
+    }
+
+    private String getStringValue(Map<String, Object> data, String key, String defaultValue) {
+        Object value = data.get(key);
+        return value != null ? value.toString() : defaultValue;
+    }
+
+    private Integer getIntegerValue(Map<String, Object> data, String key, Integer defaultValue) {
+        Object value = data.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        } else if (value instanceof String) {
+            try {
+                return Integer.parseInt((String) value);
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return defaultValue;
+    }
+}
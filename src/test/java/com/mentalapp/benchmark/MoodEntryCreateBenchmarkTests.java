@@ -0,0 +1,192 @@
+package com.mentalapp.benchmark;
+
+import com.mentalapp.ai.FakeGeminiServer;
+import com.mentalapp.ai.FakeGeminiServer.LatencyModel;
+import com.mentalapp.ai.FakeGeminiServer.MalformedMode;
+import com.mentalapp.dto.MoodEntryCreateRequest;
+import com.mentalapp.dto.MoodEntryResponse;
+import com.mentalapp.model.Emotion;
+import com.mentalapp.model.User;
+import com.mentalapp.repository.EmotionRepository;
+import com.mentalapp.repository.UserRepository;
+import com.mentalapp.service.MoodEntryService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and latency of {@link MoodEntryService#createMoodEntry} with suggestions
+ * generated synchronously against {@link FakeGeminiServer}, on an in-memory database.
+ *
+ * <p>Run with {@code mvn test -Pbenchmark}; tune with {@code -Dbenchmark.threads},
+ * {@code -Dbenchmark.requests}, {@code -Dbenchmark.warmup}, {@code -Dbenchmark.median-ms},
+ * {@code -Dbenchmark.p99-ms}, {@code -Dbenchmark.error-rate} and {@code -Dbenchmark.malformed-rate}.
+ * Extra application properties (e.g. {@code -Dgemini.batching.enabled=true}) are picked up too.
+ */
+@SpringBootTest
+@ActiveProfiles("benchmark")
+@Tag("benchmark")
+class MoodEntryCreateBenchmarkTests {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 16);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 400);
+    private static final int WARMUP = Integer.getInteger("benchmark.warmup", 50);
+
+    private static final FakeGeminiServer GEMINI = startGemini();
+
+    @Autowired
+    private MoodEntryService moodEntryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmotionRepository emotionRepository;
+
+    @DynamicPropertySource
+    static void geminiProperties(DynamicPropertyRegistry registry) {
+        registry.add("gemini.api.key", () -> "benchmark");
+        registry.add("gemini.api.url", GEMINI::generateContentUrl);
+        registry.add("gemini.api.stream-url", GEMINI::streamGenerateContentUrl);
+    }
+
+    @AfterAll
+    static void stopGemini() {
+        GEMINI.close();
+    }
+
+    @Test
+    void createMoodEntry() throws Exception {
+        List<User> users = createUsers(THREADS);
+        List<Long> emotionIds = createEmotions();
+
+        run(users, emotionIds, WARMUP);
+        long requestsBefore = GEMINI.requestCount();
+        Result result = run(users, emotionIds, REQUESTS);
+
+        System.out.printf("%nmood entry create: %d requests, %d threads, %d failed%n",
+                REQUESTS, THREADS, result.failures);
+        System.out.printf("  throughput %.1f req/s%n", REQUESTS / (result.elapsedNanos / 1e9));
+        System.out.printf("  latency p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                result.percentileMillis(50), result.percentileMillis(99), result.percentileMillis(100));
+        System.out.printf("  gemini calls %d (%d errors, %d malformed injected so far)%n%n",
+                GEMINI.requestCount() - requestsBefore, GEMINI.errorCount(), GEMINI.malformedCount());
+
+        assertThat(result.failures).isZero();
+    }
+
+    private Result run(List<User> users, List<Long> emotionIds, int requests) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long[] latencies = new long[requests];
+        AtomicInteger failures = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>(requests);
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                int n = i;
+                futures.add(pool.submit(() -> {
+                    long begin = System.nanoTime();
+                    try {
+                        MoodEntryResponse response = moodEntryService.createMoodEntry(
+                                request(n, emotionIds), users.get(n % users.size()));
+                        if (response.getSuggestedActivities() == null
+                                || response.getSuggestedActivities().isEmpty()) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[n] = System.nanoTime() - begin;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return new Result(latencies, System.nanoTime() - start, failures.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Varies emotions and energy so the prompts are not all identical
+    private static MoodEntryCreateRequest request(int n, List<Long> emotionIds) {
+        MoodEntryCreateRequest request = new MoodEntryCreateRequest();
+        request.setEntryDate(LocalDateTime.now());
+        request.setEnergyLevel(1 + n % 5);
+        request.setEmotionIds(Set.of(emotionIds.get(n % emotionIds.size())));
+        request.setComfortEnvironment(n % 2 == 0 ? "home" : "outdoors");
+        request.setDescription("Benchmark entry " + n);
+        return request;
+    }
+
+    private List<User> createUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setEmail("bench" + i + "@example.com");
+            user.setUsername("bench" + i);
+            user.setPasswordHash("unused");
+            users.add(userRepository.save(user));
+        }
+        return users;
+    }
+
+    private List<Long> createEmotions() {
+        List<Long> ids = new ArrayList<>();
+        for (String key : List.of("bench_calm", "bench_anxious", "bench_sad", "bench_tired")) {
+            Emotion emotion = new Emotion();
+            emotion.setKey(key);
+            emotion.setLabel(key.substring("bench_".length()));
+            ids.add(emotionRepository.save(emotion).getId());
+        }
+        return ids;
+    }
+
+    private static FakeGeminiServer startGemini() {
+        try {
+            return FakeGeminiServer.builder()
+                    .latency(LatencyModel.logNormal(
+                            Duration.ofMillis(Long.getLong("benchmark.median-ms", 50)),
+                            Duration.ofMillis(Long.getLong("benchmark.p99-ms", 200))))
+                    .errorRate(Double.parseDouble(System.getProperty("benchmark.error-rate", "0")), 503)
+                    .malformedRate(Double.parseDouble(System.getProperty("benchmark.malformed-rate", "0")),
+                            MalformedMode.TRUNCATED)
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Result(long[] latencies, long elapsedNanos, int failures) {
+
+        Result {
+            latencies = latencies.clone();
+            Arrays.sort(latencies);
+        }
+
+        double percentileMillis(double percentile) {
+            int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(latencies.length - 1, index))] / 1e6;
+        }
+    }
+}
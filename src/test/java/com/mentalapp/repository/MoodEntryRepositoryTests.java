@@ -0,0 +1,203 @@
+package com.mentalapp.repository;
+
+import com.mentalapp.dto.MoodEntryCreateRequest;
+import com.mentalapp.dto.MoodEntryResponse;
+import com.mentalapp.mapper.MoodEntryMapper;
+import com.mentalapp.model.ActivityTemplate;
+import com.mentalapp.model.Emotion;
+import com.mentalapp.model.MoodEntry;
+import com.mentalapp.model.SuggestedActivity;
+import com.mentalapp.model.SuggestionStatus;
+import com.mentalapp.model.User;
+import com.mentalapp.service.EmotionRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Statement counts for the mood entry read paths, including the lazy loads made while
+ * mapping to responses. These must not grow with the number of entries. Also covers how
+ * entries left with pending suggestions are found and claimed for recovery.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MoodEntryMapper.class, EmotionRegistry.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:repository;MODE=PostgreSQL;NON_KEYWORDS=KEY,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=false"
+})
+class MoodEntryRepositoryTests {
+
+    private static final int DAYS = 30;
+    private static final LocalDateTime START = LocalDateTime.of(2026, 9, 1, 0, 0);
+
+    @Autowired
+    private MoodEntryRepository moodEntryRepository;
+
+    @Autowired
+    private MoodEntryMapper moodEntryMapper;
+
+    @Autowired
+    private EmotionRegistry emotionRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Long firstEntryId;
+    private Emotion grief;
+
+    @BeforeEach
+    void createMonthOfEntries() {
+        user = new User();
+        user.setEmail("history@example.com");
+        user.setUsername("history");
+        entityManager.persist(user);
+
+        Emotion sadness = emotion("sadness", null);
+        grief = emotion("grief", sadness);
+        Emotion fear = emotion("fear", null);
+        List<ActivityTemplate> templates = List.of(
+                template("Take a slow walk around the block", "physical"),
+                template("Write down three things you are grateful for", "gratitude"),
+                template("Breathe in for four counts and out for six", "breathing"));
+
+        for (int day = 0; day < DAYS; day++) {
+            MoodEntry entry = new MoodEntry();
+            entry.setUser(user);
+            entry.setEntryDate(START.plusDays(day).withHour(8));
+            entry.setEnergyLevel(day % 5 + 1);
+            entry.getEmotions().add(grief);
+            entry.getEmotions().add(day % 2 == 0 ? fear : sadness);
+            entityManager.persist(entry);
+            for (ActivityTemplate template : templates) {
+                entityManager.persist(new SuggestedActivity(entry, template));
+            }
+            if (day == 0) {
+                firstEntryId = entry.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        emotionRegistry.reload();
+    }
+
+    @Test
+    void historyLoadsInTwoStatementsRegardlessOfSize() {
+        Statistics statistics = statistics();
+
+        List<MoodEntryResponse> responses = moodEntryRepository
+                .findWithDetailsByUserIdAndDateRange(user.getId(), START, START.plusDays(DAYS))
+                .stream()
+                .map(moodEntryMapper::toResponse)
+                .collect(Collectors.toList());
+
+        assertEquals(DAYS, responses.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        MoodEntryResponse first = responses.get(0);
+        assertEquals("history", first.getUsername());
+        assertEquals(2, first.getEmotions().size());
+        assertTrue(first.getEmotions().stream().anyMatch(emotion -> "sadness".equals(emotion.getParentKey())));
+        assertEquals(3, first.getSuggestedActivities().size());
+        assertTrue(first.getSuggestedActivities().stream()
+                .anyMatch(activity -> "gratitude".equals(activity.getActivityType())));
+    }
+
+    @Test
+    void singleEntryLoadsInOneStatement() {
+        Statistics statistics = statistics();
+
+        MoodEntryResponse response = moodEntryMapper.toResponse(
+                moodEntryRepository.findWithDetailsById(firstEntryId).orElseThrow());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, response.getEmotions().size());
+        assertEquals(3, response.getSuggestedActivities().size());
+    }
+
+    @Test
+    void mappingEmotionsMakesNoStatements() {
+        MoodEntryCreateRequest request = new MoodEntryCreateRequest();
+        request.setEmotionIds(Set.of(grief.getId(), -1L));
+        Statistics statistics = statistics();
+
+        MoodEntry entry = moodEntryMapper.toEntity(request);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        Emotion mapped = entry.getEmotions().iterator().next();
+        assertEquals(1, entry.getEmotions().size());
+        assertEquals("sadness", mapped.getParent().getKey());
+        assertEquals("sadness", emotionRegistry.rootOf(grief.getId()).getKey());
+    }
+
+    @Test
+    void staleEntriesArePendingPastTheCutoffAndClaimedOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = moodEntryRepository.findByUserIdAndDateRange(user.getId(), START, START.plusDays(3))
+                .stream()
+                .map(MoodEntry::getId)
+                .collect(Collectors.toList());
+        entityManager.createQuery("UPDATE MoodEntry m SET m.suggestionStatus = :status, m.updatedAt = :updatedAt "
+                        + "WHERE m.id IN :ids")
+                .setParameter("status", SuggestionStatus.PENDING)
+                .setParameter("updatedAt", now.minusHours(1))
+                .setParameter("ids", ids.subList(0, 2))
+                .executeUpdate();
+        // Pending, but still within the cutoff
+        moodEntryRepository.updateSuggestionStatus(ids.get(2), SuggestionStatus.PENDING);
+        LocalDateTime cutoff = now.minusMinutes(15);
+
+        assertEquals(ids.subList(0, 2), moodEntryRepository.findStalePendingIds(cutoff, PageRequest.of(0, 10)));
+        assertEquals(List.of(ids.get(0)), moodEntryRepository.findStalePendingIds(cutoff, PageRequest.of(0, 1)));
+        assertEquals(1, moodEntryRepository.claimStalePending(ids.get(0), cutoff, now));
+        assertEquals(0, moodEntryRepository.claimStalePending(ids.get(0), cutoff, now));
+        assertEquals(List.of(ids.get(1)), moodEntryRepository.findStalePendingIds(cutoff, PageRequest.of(0, 10)));
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private Emotion emotion(String key, Emotion parent) {
+        Emotion emotion = new Emotion();
+        emotion.setKey(key);
+        emotion.setLabel(key);
+        emotion.setParent(parent);
+        entityManager.persist(emotion);
+        return emotion;
+    }
+
+    private ActivityTemplate template(String description, String type) {
+        ActivityTemplate template = ActivityTemplate.of(description, type, 10, 2, 3);
+        entityManager.persist(template);
+        return template;
+    }
+}